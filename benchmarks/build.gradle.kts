@@ -0,0 +1,38 @@
+plugins {
+    id("net.neoforged.moddev") version "2.0.95"
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+val neoform_version: String by project
+val parchment_minecraft_version: String by project
+val parchment_version: String by project
+
+// JMH harnesses for the pure and near-pure companion hot paths.
+// Run with: ./gradlew :benchmarks:jmh
+// Results are written as JSON to build/results/jmh/results.json, including
+// allocation rates from the GC profiler, so runs can be diffed across versions.
+
+neoForge {
+    neoFormVersion = neoform_version
+
+    parchment {
+        minecraftVersion.set(parchment_minecraft_version)
+        mappingsVersion.set(parchment_version)
+    }
+
+    addModdingDependenciesTo(sourceSets["jmh"])
+}
+
+dependencies {
+    jmh(project(":common"))
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    profilers.add("gc")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
@@ -0,0 +1,53 @@
+package com.payangar.immersivecompanions.benchmark;
+
+import com.payangar.immersivecompanions.entity.condition.CompanionCondition;
+import com.payangar.immersivecompanions.entity.condition.CompanionConditions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Condition bookkeeping behind {@code CompanionEntity#hasCondition} and the cached
+ * action and combat flags, with no condition or with critical injury active.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConditionBenchmark {
+
+    @Param({"false", "true"})
+    public boolean injured;
+
+    private CompanionCondition[] active;
+
+    @Setup
+    public void setup() {
+        MinecraftBootstrap.init();
+        active = new CompanionCondition[CompanionConditions.count()];
+        if (injured) {
+            active[CompanionConditions.ordinal(CompanionConditions.CRITICAL_INJURY)] = CompanionConditions.CRITICAL_INJURY;
+        }
+    }
+
+    @Benchmark
+    public int ordinal() {
+        return CompanionConditions.ordinal(CompanionConditions.CRITICAL_INJURY);
+    }
+
+    @Benchmark
+    public int blockedActionMask() {
+        return CompanionConditions.blockedActionMask(active);
+    }
+
+    @Benchmark
+    public boolean disablesCombat() {
+        return CompanionConditions.disablesCombat(active);
+    }
+}
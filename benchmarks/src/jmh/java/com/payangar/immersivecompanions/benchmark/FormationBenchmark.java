@@ -0,0 +1,41 @@
+package com.payangar.immersivecompanions.benchmark;
+
+import com.payangar.immersivecompanions.entity.formation.FormationPlanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formation slot lookups, run by every following companion while it moves.
+ * Measures one lookup per member of a party of the given size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormationBenchmark {
+
+    @Param({"4", "20", "100"})
+    public int partySize;
+
+    @Setup
+    public void setup() {
+        MinecraftBootstrap.init();
+        // Lay out the slots outside the measurement
+        FormationPlanner.getSlotOffset(partySize - 1);
+    }
+
+    @Benchmark
+    public void slotOffsets(Blackhole blackhole) {
+        for (int slot = 0; slot < partySize; slot++) {
+            blackhole.consume(FormationPlanner.getSlotOffset(slot));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.payangar.immersivecompanions.benchmark;
+
+import com.payangar.immersivecompanions.entity.ai.GapJumpHelper;
+import net.minecraft.world.phys.Vec3;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gap detection, run every tick by sprinting companions, on a synthetic grid.
+ * Each invocation checks a row of companions sprinting along X, so some stand on flat
+ * ground and some at a trench edge.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GapJumpBenchmark {
+
+    private static final int MAX_FALL_DISTANCE = 3;
+    /** Sprinting speed in blocks per tick */
+    private static final double SPRINT_SPEED = 0.28;
+
+    private SyntheticBlockGrid grid;
+    private Vec3[] positions;
+    private Vec3 velocity;
+
+    @Setup
+    public void setup() {
+        MinecraftBootstrap.init();
+        grid = new SyntheticBlockGrid();
+        positions = new Vec3[SyntheticBlockGrid.SIZE / 2];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = new Vec3(i + 0.5, SyntheticBlockGrid.GROUND_Y, 8.5);
+        }
+        velocity = new Vec3(SPRINT_SPEED, 0.0, 0.0);
+    }
+
+    @Benchmark
+    public void isNearGapEdge(Blackhole blackhole) {
+        for (Vec3 pos : positions) {
+            blackhole.consume(GapJumpHelper.isNearGapEdge(grid, pos, velocity));
+        }
+    }
+
+    @Benchmark
+    public void detectGapAhead(Blackhole blackhole) {
+        for (Vec3 pos : positions) {
+            blackhole.consume(GapJumpHelper.detectGapAhead(grid, pos, velocity, MAX_FALL_DISTANCE));
+        }
+    }
+}
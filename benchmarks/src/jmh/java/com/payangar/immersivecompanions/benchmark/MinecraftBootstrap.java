@@ -0,0 +1,19 @@
+package com.payangar.immersivecompanions.benchmark;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+
+/**
+ * Initializes the vanilla registries once per benchmark JVM, so blocks, items and
+ * entity types can be used without a running server.
+ */
+final class MinecraftBootstrap {
+
+    private MinecraftBootstrap() {
+    }
+
+    static void init() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+}
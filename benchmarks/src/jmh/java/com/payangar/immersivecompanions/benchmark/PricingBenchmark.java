@@ -0,0 +1,51 @@
+package com.payangar.immersivecompanions.benchmark;
+
+import com.payangar.immersivecompanions.recruitment.CompanionPricing;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recruitment pricing, run whenever a player opens a companion's recruitment screen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PricingBenchmark {
+
+    private UUID uuid;
+    private List<ItemStack> armor;
+    private ItemStack weapon;
+
+    @Setup
+    public void setup() {
+        MinecraftBootstrap.init();
+        uuid = UUID.fromString("6f1c2c4e-8d2a-4f35-9b1e-3a7d5c9e0f12");
+        armor = List.of(
+                new ItemStack(Items.IRON_BOOTS),
+                new ItemStack(Items.CHAINMAIL_LEGGINGS),
+                new ItemStack(Items.IRON_CHESTPLATE),
+                ItemStack.EMPTY);
+        weapon = new ItemStack(Items.CROSSBOW);
+    }
+
+    @Benchmark
+    public int calculateBasePrice() {
+        return CompanionPricing.calculateBasePrice(uuid, armor, weapon);
+    }
+
+    @Benchmark
+    public int getEquipmentBonus() {
+        return CompanionPricing.getEquipmentBonus(armor, weapon);
+    }
+}
@@ -0,0 +1,52 @@
+package com.payangar.immersivecompanions.benchmark;
+
+import com.payangar.immersivecompanions.entity.teleport.SafePositionFinder;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.EntityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Teleport position searches on a synthetic grid, from open ground and from the middle
+ * of a trench. Searches use the same parameters as the teleport handler and the
+ * follow goal.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SafePositionBenchmark {
+
+    private SyntheticBlockGrid grid;
+    private BlockPos openGround;
+    private BlockPos trench;
+
+    @Setup
+    public void setup() {
+        MinecraftBootstrap.init();
+        grid = new SyntheticBlockGrid();
+        openGround = new BlockPos(10, SyntheticBlockGrid.GROUND_Y, 10);
+        trench = new BlockPos(30, SyntheticBlockGrid.GROUND_Y, 10);
+    }
+
+    @Benchmark
+    public BlockPos findSafePositionOpen() {
+        return SafePositionFinder.findSafePosition(grid, openGround, EntityType.VILLAGER);
+    }
+
+    @Benchmark
+    public BlockPos findSafePositionTrench() {
+        return SafePositionFinder.findSafePosition(grid, trench, EntityType.VILLAGER);
+    }
+
+    @Benchmark
+    public BlockPos findSafePositionExtended() {
+        return SafePositionFinder.findSafePositionExtended(grid, trench, EntityType.VILLAGER, 5, 2, 20);
+    }
+}
@@ -0,0 +1,39 @@
+package com.payangar.immersivecompanions.benchmark;
+
+import com.payangar.immersivecompanions.spawning.CompanionSpawnLogic;
+import net.minecraft.util.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Village spawn rolls, run once per newly loaded village chunk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpawnLogicBenchmark {
+
+    @Param({"2", "5", "10", "20"})
+    public int villagerCount;
+
+    private RandomSource random;
+
+    @Setup
+    public void setup() {
+        MinecraftBootstrap.init();
+        random = RandomSource.create(42L);
+    }
+
+    @Benchmark
+    public int determineSpawnCount() {
+        return CompanionSpawnLogic.determineSpawnCount(villagerCount, random);
+    }
+}
@@ -0,0 +1,78 @@
+package com.payangar.immersivecompanions.benchmark;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FluidState;
+
+import javax.annotation.Nullable;
+
+/**
+ * Fixed block grid standing in for a level: flat stone ground with two-block-wide
+ * trenches every eight blocks along X and short pillars scattered on a 16-block
+ * lattice, so gap detection and safe-position searches take their usual branches.
+ * Everything outside the grid is air.
+ */
+final class SyntheticBlockGrid implements BlockGetter {
+
+    static final int SIZE = 64;
+    /** Y of the first air block above flat ground */
+    static final int GROUND_Y = 64;
+
+    private static final int TRENCH_PERIOD = 8;
+    private static final int TRENCH_WIDTH = 2;
+    private static final int TRENCH_DEPTH = 3;
+    private static final int PILLAR_PERIOD = 16;
+    private static final int PILLAR_HEIGHT = 3;
+
+    private final int[] surface = new int[SIZE * SIZE];
+    private final BlockState ground = Blocks.STONE.defaultBlockState();
+    private final BlockState air = Blocks.AIR.defaultBlockState();
+
+    SyntheticBlockGrid() {
+        for (int x = 0; x < SIZE; x++) {
+            for (int z = 0; z < SIZE; z++) {
+                int y = GROUND_Y;
+                if (x % TRENCH_PERIOD >= TRENCH_PERIOD - TRENCH_WIDTH) {
+                    y -= TRENCH_DEPTH;
+                } else if (x % PILLAR_PERIOD == 3 && z % PILLAR_PERIOD == 3) {
+                    y += PILLAR_HEIGHT;
+                }
+                surface[x * SIZE + z] = y;
+            }
+        }
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        int x = pos.getX();
+        int z = pos.getZ();
+        if (x < 0 || z < 0 || x >= SIZE || z >= SIZE) {
+            return air;
+        }
+        return pos.getY() < surface[x * SIZE + z] ? ground : air;
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public int getHeight() {
+        return 384;
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return -64;
+    }
+}
@@ -1,6 +1,7 @@
 package com.payangar.immersivecompanions;
 
 import com.payangar.immersivecompanions.config.ModConfig;
+import com.payangar.immersivecompanions.metrics.CompanionMetrics;
 import com.payangar.immersivecompanions.platform.Services;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,5 +16,8 @@ public class ImmersiveCompanions {
 
         // Load configuration
         ModConfig.load();
+
+        // Expose companion counters and gauges over JMX
+        CompanionMetrics.register();
     }
 }
@@ -1,20 +1,49 @@
 package com.payangar.immersivecompanions.command;
 
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.payangar.immersivecompanions.config.ModConfig;
 import com.payangar.immersivecompanions.entity.CompanionEntity;
 import com.payangar.immersivecompanions.entity.CompanionTeleportHandler;
+import com.payangar.immersivecompanions.entity.combat.CombatStance;
+import com.payangar.immersivecompanions.entity.mode.CompanionMode;
+import com.payangar.immersivecompanions.entity.projectile.CompanionProjectiles;
+import com.payangar.immersivecompanions.entity.schedule.CompanionScheduler;
+import com.payangar.immersivecompanions.metrics.CompanionCensus;
+import com.payangar.immersivecompanions.profiling.CompanionProfiler;
+import com.payangar.immersivecompanions.stress.ScenarioRunner;
+import com.payangar.immersivecompanions.stress.StressLoad;
+import com.payangar.immersivecompanions.stress.StressScenario;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
+import net.minecraft.commands.SharedSuggestionProvider;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Debug commands for Immersive Companions mod.
  */
 public class ModCommands {
 
+    private static final int PROFILE_TOP_SECTIONS = 15;
+    private static final int PROFILE_TOP_COMPANIONS = 5;
+    private static final int CENSUS_DEFAULT_TOP_CHUNKS = 10;
+    private static final int STRESS_MAX_COUNT = 1000;
+    private static final int STRESS_DEFAULT_RADIUS = 16;
+    private static final int STRESS_MAX_RADIUS = 128;
+
     public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
         dispatcher.register(
                 Commands.literal("immersivecompanions")
@@ -23,6 +52,82 @@ public class ModCommands {
                                 .then(Commands.literal("nearby")
                                         .executes(context -> listNearbyCompanions(context.getSource()))
                                 )
+                                .then(Commands.literal("arrows")
+                                        .executes(context -> reportArrows(context.getSource()))
+                                )
+                                .then(Commands.literal("scheduler")
+                                        .executes(context -> reportScheduler(context.getSource()))
+                                )
+                        )
+                        .then(Commands.literal("census")
+                                .executes(context -> reportCensus(context.getSource(), CENSUS_DEFAULT_TOP_CHUNKS, false))
+                                .then(Commands.argument("top", IntegerArgumentType.integer(1, 100))
+                                        .executes(context -> reportCensus(context.getSource(),
+                                                IntegerArgumentType.getInteger(context, "top"), false))
+                                )
+                                .then(Commands.literal("export")
+                                        .executes(context -> reportCensus(context.getSource(), CENSUS_DEFAULT_TOP_CHUNKS, true))
+                                )
+                        )
+                        .then(Commands.literal("profile")
+                                .then(Commands.literal("start")
+                                        .executes(context -> startProfiler(context.getSource()))
+                                )
+                                .then(Commands.literal("stop")
+                                        .executes(context -> stopProfiler(context.getSource()))
+                                )
+                                .then(Commands.literal("report")
+                                        .executes(context -> reportProfiler(context.getSource()))
+                                )
+                        )
+                        .then(Commands.literal("scenario")
+                                .then(Commands.literal("run")
+                                        .then(Commands.argument("scenario", StringArgumentType.word())
+                                                .suggests((context, builder) -> suggestScenarios(builder))
+                                                .executes(context -> runScenarios(context.getSource(),
+                                                        StringArgumentType.getString(context, "scenario"), false))
+                                        )
+                                )
+                                .then(Commands.literal("record")
+                                        .then(Commands.argument("scenario", StringArgumentType.word())
+                                                .suggests((context, builder) -> suggestScenarios(builder))
+                                                .executes(context -> runScenarios(context.getSource(),
+                                                        StringArgumentType.getString(context, "scenario"), true))
+                                        )
+                                )
+                                .then(Commands.literal("cancel")
+                                        .executes(context -> cancelScenarios(context.getSource()))
+                                )
+                        )
+                        .then(Commands.literal("stress")
+                                .then(Commands.literal("spawn")
+                                        .then(Commands.argument("count", IntegerArgumentType.integer(1, STRESS_MAX_COUNT))
+                                                .then(Commands.argument("team", StringArgumentType.word())
+                                                        .suggests((context, builder) -> SharedSuggestionProvider.suggest(
+                                                                new String[]{CompanionEntity.DEFAULT_TEAM}, builder))
+                                                        .executes(context -> spawnStress(context, false, false, false))
+                                                        .then(Commands.argument("radius", IntegerArgumentType.integer(1, STRESS_MAX_RADIUS))
+                                                                .executes(context -> spawnStress(context, true, false, false))
+                                                                .then(Commands.argument("mode", StringArgumentType.word())
+                                                                        .suggests((context, builder) -> SharedSuggestionProvider.suggest(
+                                                                                Arrays.stream(CompanionMode.values()).map(CompanionMode::getId), builder))
+                                                                        .executes(context -> spawnStress(context, true, true, false))
+                                                                        .then(Commands.argument("stance", StringArgumentType.word())
+                                                                                .suggests((context, builder) -> SharedSuggestionProvider.suggest(
+                                                                                        Arrays.stream(CombatStance.values()).map(CombatStance::getId), builder))
+                                                                                .executes(context -> spawnStress(context, true, true, true))
+                                                                        )
+                                                                )
+                                                        )
+                                                )
+                                        )
+                                )
+                                .then(Commands.literal("clear")
+                                        .executes(context -> clearStress(context.getSource()))
+                                )
+                                .then(Commands.literal("report")
+                                        .executes(context -> reportStress(context.getSource()))
+                                )
                         )
         );
     }
@@ -62,4 +167,174 @@ public class ModCommands {
 
         return 1;
     }
+
+    private static int reportArrows(CommandSourceStack source) {
+        int cap = ModConfig.get().getCompanionArrowCap();
+        source.sendSuccess(() -> Component.literal("=== Companion Arrows (cap " + cap + " per level) ==="), false);
+
+        for (ServerLevel level : source.getServer().getAllLevels()) {
+            CompanionProjectiles arrows = CompanionProjectiles.get(level);
+            String dimension = level.dimension().location().toString();
+            source.sendSuccess(() -> Component.literal(String.format(
+                    "  - %s | %d tracked | %d stuck | %d evicted | %d despawned",
+                    dimension, arrows.getTrackedCount(), arrows.getStuckCount(),
+                    arrows.getEvictedCount(), arrows.getDespawnedCount()
+            )), false);
+        }
+
+        return 1;
+    }
+
+    private static int reportScheduler(CommandSourceStack source) {
+        int budget = ModConfig.get().getAiCheckBudgetPerTick();
+        source.sendSuccess(() -> Component.literal("=== Companion AI Checks (budget " + budget + " per level per tick) ==="), false);
+
+        for (ServerLevel level : source.getServer().getAllLevels()) {
+            CompanionScheduler scheduler = CompanionScheduler.get(level);
+            String dimension = level.dimension().location().toString();
+            source.sendSuccess(() -> Component.literal(String.format(
+                    "  - %s | %d peak per tick | %d run | %d deferred",
+                    dimension, scheduler.getPeakChecksPerTick(), scheduler.getCheckCount(),
+                    scheduler.getDeferredCount()
+            )), false);
+        }
+
+        return 1;
+    }
+
+    private static int reportCensus(CommandSourceStack source, int topChunks, boolean export) {
+        CompanionCensus census = CompanionCensus.take(source.getServer());
+        source.sendSuccess(() -> Component.literal("=== Companion Census (loaded chunks only) ==="), false);
+
+        for (String line : census.describe(topChunks)) {
+            source.sendSuccess(() -> Component.literal(line), false);
+        }
+
+        if (export) {
+            Path path = census.export();
+            if (path == null) {
+                source.sendFailure(Component.literal("Failed to write census; see the server log"));
+                return 0;
+            }
+            source.sendSuccess(() -> Component.literal("Census written to " + path), false);
+        }
+
+        return 1;
+    }
+
+    private static int startProfiler(CommandSourceStack source) {
+        CompanionProfiler.enable();
+        source.sendSuccess(() -> Component.literal("Companion profiler started; previous results cleared"), true);
+        return 1;
+    }
+
+    private static int stopProfiler(CommandSourceStack source) {
+        if (!CompanionProfiler.isEnabled()) {
+            source.sendFailure(Component.literal("Companion profiler is not running"));
+            return 0;
+        }
+        CompanionProfiler.disable();
+        source.sendSuccess(() -> Component.literal("Companion profiler stopped; use 'profile report' to see results"), true);
+        return 1;
+    }
+
+    private static int reportProfiler(CommandSourceStack source) {
+        source.sendSuccess(() -> Component.literal("=== Companion Profile (top sections by total time) ==="), false);
+
+        for (String line : CompanionProfiler.report(PROFILE_TOP_SECTIONS, PROFILE_TOP_COMPANIONS)) {
+            source.sendSuccess(() -> Component.literal(line), false);
+        }
+
+        return 1;
+    }
+
+    private static int runScenarios(CommandSourceStack source, String id, boolean record) {
+        List<StressScenario> scenarios = new ArrayList<>();
+        if (id.equals("all")) {
+            scenarios.addAll(Arrays.asList(StressScenario.values()));
+        } else {
+            StressScenario scenario = StressScenario.byId(id);
+            if (scenario == null) {
+                source.sendFailure(Component.literal("Unknown scenario: " + id));
+                return 0;
+            }
+            scenarios.add(scenario);
+        }
+
+        boolean started = ScenarioRunner.start(source.getLevel(), source.getPosition(), source.getPlayer(),
+                scenarios, record, line -> source.sendSuccess(() -> Component.literal(line), false), null);
+        if (!started) {
+            source.sendFailure(Component.literal("A stress scenario is already running; use 'scenario cancel' to stop it"));
+            return 0;
+        }
+
+        source.sendSuccess(() -> Component.literal("=== Stress Scenarios" + (record ? " (recording baseline)" : "") + " ==="), true);
+        return 1;
+    }
+
+    private static int cancelScenarios(CommandSourceStack source) {
+        if (!ScenarioRunner.cancel()) {
+            source.sendFailure(Component.literal("No stress scenario is running"));
+            return 0;
+        }
+        source.sendSuccess(() -> Component.literal("Stress scenario cancelled; its entities were removed"), true);
+        return 1;
+    }
+
+    private static int spawnStress(CommandContext<CommandSourceStack> context, boolean hasRadius,
+                                   boolean hasMode, boolean hasStance) {
+        CommandSourceStack source = context.getSource();
+        // Extra companions would skew the running scenario's measurements
+        if (ScenarioRunner.isRunning()) {
+            source.sendFailure(Component.literal("A stress scenario is running; wait for it or use 'scenario cancel'"));
+            return 0;
+        }
+        int count = IntegerArgumentType.getInteger(context, "count");
+        String team = StringArgumentType.getString(context, "team");
+        int radius = hasRadius ? IntegerArgumentType.getInteger(context, "radius") : STRESS_DEFAULT_RADIUS;
+        String modeId = hasMode ? StringArgumentType.getString(context, "mode") : CompanionMode.WANDER.getId();
+        String stanceId = hasStance ? StringArgumentType.getString(context, "stance") : CombatStance.DEFENSIVE.getId();
+
+        CompanionMode mode = CompanionMode.byId(modeId);
+        if (!mode.getId().equals(modeId)) {
+            source.sendFailure(Component.literal("Unknown mode: " + modeId));
+            return 0;
+        }
+        CombatStance stance = CombatStance.byId(stanceId);
+        if (!stance.getId().equals(stanceId)) {
+            source.sendFailure(Component.literal("Unknown stance: " + stanceId));
+            return 0;
+        }
+
+        boolean started = !StressLoad.isActive();
+        int spawned = StressLoad.spawn(source.getLevel(), source.getPosition(), count, radius, team, mode, stance);
+        source.sendSuccess(() -> Component.literal(String.format(
+                "Spawned %d stress companion(s) | team %s | %s | %s%s",
+                spawned, team, mode.getId(), stance.getId(),
+                started ? " | baseline MSPT recorded; use 'stress report' after a few seconds" : ""
+        )), true);
+        return spawned;
+    }
+
+    private static int clearStress(CommandSourceStack source) {
+        int removed = StressLoad.clear(source.getServer());
+        source.sendSuccess(() -> Component.literal("Removed " + removed + " stress entities"), true);
+        return removed;
+    }
+
+    private static int reportStress(CommandSourceStack source) {
+        source.sendSuccess(() -> Component.literal("=== Stress Load ==="), false);
+
+        for (String line : StressLoad.report(source.getServer())) {
+            source.sendSuccess(() -> Component.literal(line), false);
+        }
+
+        return 1;
+    }
+
+    private static CompletableFuture<Suggestions> suggestScenarios(SuggestionsBuilder builder) {
+        return SharedSuggestionProvider.suggest(
+                Stream.concat(Stream.of("all"), Arrays.stream(StressScenario.values()).map(StressScenario::getId)),
+                builder);
+    }
 }
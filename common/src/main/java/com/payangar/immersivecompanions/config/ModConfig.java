@@ -27,6 +27,14 @@ public class ModConfig {
     public static boolean enableMonstersTargetCompanions = true;
     public static boolean enableTeamCoordination = true;
     public static float teamCoordinationRange = 16.0f;
+    public static boolean enableTeamAwareProjectiles = true;
+    public static int companionArrowCap = 256;
+    public static boolean enableAiLod = true;
+    public static float aiLodReducedRadius = 48.0f;
+    public static float aiLodDormantRadius = 96.0f;
+    public static int aiCheckBudgetPerTick = 64;
+    public static int maxVillageCompanionsPerRegion = 32;
+    public static int maxVillageCompanionsPerLevel = 512;
 
     // Internal class for JSON serialization
     private static class ConfigData {
@@ -36,6 +44,14 @@ public class ModConfig {
         boolean enableMonstersTargetCompanions = true;
         boolean enableTeamCoordination = true;
         float teamCoordinationRange = 16.0f;
+        boolean enableTeamAwareProjectiles = true;
+        int companionArrowCap = 256;
+        boolean enableAiLod = true;
+        float aiLodReducedRadius = 48.0f;
+        float aiLodDormantRadius = 96.0f;
+        int aiCheckBudgetPerTick = 64;
+        int maxVillageCompanionsPerRegion = 32;
+        int maxVillageCompanionsPerLevel = 512;
     }
 
     /**
@@ -93,6 +109,79 @@ public class ModConfig {
         return teamCoordinationRange;
     }
 
+    /**
+     * Whether companion-fired projectiles pass through allies.
+     * When enabled, arrows ignore same-team companions, iron golems and villagers,
+     * so ranged companions shoot without checking their line of fire for friendlies.
+     */
+    public boolean isEnableTeamAwareProjectiles() {
+        return enableTeamAwareProjectiles;
+    }
+
+    /**
+     * Maximum number of companion-fired arrows per level.
+     * When exceeded, the oldest arrows are removed first. Must be at least 1. Default is 256.
+     */
+    public int getCompanionArrowCap() {
+        return companionArrowCap;
+    }
+
+    /**
+     * Whether companions far from players run their AI at reduced detail.
+     * When enabled, looking around, wandering and target scans slow down or pause
+     * with distance to the nearest player, and resume as soon as a companion is hurt.
+     */
+    public boolean isEnableAiLod() {
+        return enableAiLod;
+    }
+
+    /**
+     * Distance to the nearest player beyond which companion AI runs at reduced detail.
+     * Default is 48.0 blocks.
+     */
+    public float getAiLodReducedRadius() {
+        return aiLodReducedRadius;
+    }
+
+    /**
+     * Distance to the nearest player beyond which companion AI is suspended.
+     * Default is 96.0 blocks.
+     */
+    public float getAiLodDormantRadius() {
+        return aiLodDormantRadius;
+    }
+
+    /**
+     * Maximum number of periodic companion target checks run per level per tick.
+     * Checks over the budget are deferred and served first when they are retried.
+     * Must be at least 1. Default is 64.
+     */
+    public int getAiCheckBudgetPerTick() {
+        return aiCheckBudgetPerTick;
+    }
+
+    /**
+     * Maximum number of loaded village companions in a region (32x32 chunks) for village
+     * spawning. Villages in a region at the cap spawn no companions until there is room.
+     * Only unowned companions in the villager team are counted, and only in loaded chunks,
+     * so this bounds what players can have loaded around them rather than the world total.
+     * 0 disables the cap. Default is 32.
+     */
+    public int getMaxVillageCompanionsPerRegion() {
+        return maxVillageCompanionsPerRegion;
+    }
+
+    /**
+     * Maximum number of loaded village companions in a level for village spawning.
+     * Villages in a level at the cap spawn no companions until there is room. Only unowned
+     * companions in the villager team are counted, and only in loaded chunks, so companions
+     * saved in unloaded chunks can push the world total past the cap. 0 disables the cap.
+     * Default is 512.
+     */
+    public int getMaxVillageCompanionsPerLevel() {
+        return maxVillageCompanionsPerLevel;
+    }
+
     /**
      * Loads the config from file, or creates default config if not found.
      * Should be called during mod initialization.
@@ -111,7 +200,16 @@ public class ModConfig {
                     enableMonstersTargetCompanions = data.enableMonstersTargetCompanions;
                     enableTeamCoordination = data.enableTeamCoordination;
                     teamCoordinationRange = data.teamCoordinationRange;
+                    enableTeamAwareProjectiles = data.enableTeamAwareProjectiles;
+                    companionArrowCap = data.companionArrowCap;
+                    enableAiLod = data.enableAiLod;
+                    aiLodReducedRadius = data.aiLodReducedRadius;
+                    aiLodDormantRadius = data.aiLodDormantRadius;
+                    aiCheckBudgetPerTick = data.aiCheckBudgetPerTick;
+                    maxVillageCompanionsPerRegion = data.maxVillageCompanionsPerRegion;
+                    maxVillageCompanionsPerLevel = data.maxVillageCompanionsPerLevel;
                 }
+                validate();
                 ImmersiveCompanions.LOGGER.info("Loaded config from {}", configPath);
             } catch (IOException e) {
                 ImmersiveCompanions.LOGGER.error("Failed to load config, using defaults", e);
@@ -123,6 +221,28 @@ public class ModConfig {
         }
     }
 
+    /**
+     * Replaces loaded values that would break companion behavior with safe ones.
+     */
+    private static void validate() {
+        if (aiLodReducedRadius >= aiLodDormantRadius) {
+            ImmersiveCompanions.LOGGER.warn("aiLodReducedRadius ({}) must be below aiLodDormantRadius ({}), using defaults",
+                    aiLodReducedRadius, aiLodDormantRadius);
+            aiLodReducedRadius = 48.0f;
+            aiLodDormantRadius = 96.0f;
+        }
+        if (aiCheckBudgetPerTick < 1) {
+            ImmersiveCompanions.LOGGER.warn("aiCheckBudgetPerTick ({}) must be at least 1, using default",
+                    aiCheckBudgetPerTick);
+            aiCheckBudgetPerTick = 64;
+        }
+        if (companionArrowCap < 1) {
+            ImmersiveCompanions.LOGGER.warn("companionArrowCap ({}) must be at least 1, using default",
+                    companionArrowCap);
+            companionArrowCap = 256;
+        }
+    }
+
     /**
      * Saves the current config to file.
      */
@@ -138,6 +258,14 @@ public class ModConfig {
             data.enableMonstersTargetCompanions = enableMonstersTargetCompanions;
             data.enableTeamCoordination = enableTeamCoordination;
             data.teamCoordinationRange = teamCoordinationRange;
+            data.enableTeamAwareProjectiles = enableTeamAwareProjectiles;
+            data.companionArrowCap = companionArrowCap;
+            data.enableAiLod = enableAiLod;
+            data.aiLodReducedRadius = aiLodReducedRadius;
+            data.aiLodDormantRadius = aiLodDormantRadius;
+            data.aiCheckBudgetPerTick = aiCheckBudgetPerTick;
+            data.maxVillageCompanionsPerRegion = maxVillageCompanionsPerRegion;
+            data.maxVillageCompanionsPerLevel = maxVillageCompanionsPerLevel;
             String json = GSON.toJson(data);
             Files.writeString(configPath, json);
         } catch (IOException e) {
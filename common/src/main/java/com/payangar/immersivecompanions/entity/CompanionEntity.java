@@ -5,30 +5,35 @@ import com.payangar.immersivecompanions.data.CompanionEquipment;
 import com.payangar.immersivecompanions.data.CompanionNames;
 import com.payangar.immersivecompanions.data.CompanionSkins;
 import com.payangar.immersivecompanions.data.SkinInfo;
-import com.payangar.immersivecompanions.entity.ai.CompanionAssistOwnerGoal;
-import com.payangar.immersivecompanions.entity.ai.CompanionDefendTeammatesGoal;
-import com.payangar.immersivecompanions.entity.ai.CompanionDefendVillageGoal;
-import com.payangar.immersivecompanions.entity.ai.CompanionFleeFromAttackerGoal;
-import com.payangar.immersivecompanions.entity.ai.CompanionFloatGoal;
-import com.payangar.immersivecompanions.entity.ai.CompanionFollowOwnerGoal;
-import com.payangar.immersivecompanions.entity.ai.CompanionHurtByTargetGoal;
-import com.payangar.immersivecompanions.entity.ai.CompanionInteractionGoal;
-import com.payangar.immersivecompanions.entity.ai.CompanionMeleeAttackGoal;
-import com.payangar.immersivecompanions.entity.ai.CompanionNearestAttackableTargetGoal;
-import com.payangar.immersivecompanions.entity.ai.CompanionRangedAttackGoal;
-import com.payangar.immersivecompanions.entity.ai.CompanionTeamCoordinationGoal;
-import com.payangar.immersivecompanions.entity.ai.CompanionWaterAvoidingRandomStrollGoal;
+import com.payangar.immersivecompanions.entity.ai.AiLod;
+import com.payangar.immersivecompanions.entity.ai.CompanionGoalSets;
 import com.payangar.immersivecompanions.entity.ai.GapJumpHelper;
 import com.payangar.immersivecompanions.entity.ai.pathfinding.CompanionGroundPathNavigation;
 import com.payangar.immersivecompanions.entity.combat.CombatStance;
 import com.payangar.immersivecompanions.entity.condition.ActionType;
 import com.payangar.immersivecompanions.entity.condition.CompanionCondition;
+import com.payangar.immersivecompanions.entity.condition.CompanionConditions;
 import com.payangar.immersivecompanions.entity.condition.CriticalInjuryCondition;
+import com.payangar.immersivecompanions.entity.formation.FormationPlanner;
+import com.payangar.immersivecompanions.entity.index.CompanionIndex;
 import com.payangar.immersivecompanions.entity.mode.CompanionMode;
+import com.payangar.immersivecompanions.entity.projectile.CompanionProjectiles;
+import com.payangar.immersivecompanions.entity.schedule.CompanionScheduler;
+import com.payangar.immersivecompanions.entity.schedule.ScheduledCheck;
+import com.payangar.immersivecompanions.entity.team.CompanionTeams;
+import com.payangar.immersivecompanions.entity.team.TeamBlackboard;
 import com.payangar.immersivecompanions.inventory.CompanionEquipmentMenu;
+import com.payangar.immersivecompanions.metrics.CompanionMetrics;
 import com.payangar.immersivecompanions.network.ModNetworking;
 import com.payangar.immersivecompanions.platform.Services;
+import com.payangar.immersivecompanions.profiling.CompanionProfiler;
 import com.payangar.immersivecompanions.recruitment.CompanionPricing;
+import com.payangar.immersivecompanions.stress.ScenarioRunner;
+import com.payangar.immersivecompanions.stress.ServerTickTimer;
+import com.payangar.immersivecompanions.village.VillageReputation;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.Tag;
@@ -65,9 +70,7 @@ import net.minecraft.world.entity.ai.navigation.PathNavigation;
 import net.minecraft.world.phys.AABB;
 
 import javax.annotation.Nullable;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.UUID;
 
 public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
@@ -83,8 +86,8 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
             CompanionEntity.class, EntityDataSerializers.INT);
     private static final EntityDataAccessor<Boolean> DATA_CHARGING = SynchedEntityData.defineId(
             CompanionEntity.class, EntityDataSerializers.BOOLEAN);
-    private static final EntityDataAccessor<String> DATA_TEAM = SynchedEntityData.defineId(
-            CompanionEntity.class, EntityDataSerializers.STRING);
+    private static final EntityDataAccessor<Integer> DATA_TEAM_ID = SynchedEntityData.defineId(
+            CompanionEntity.class, EntityDataSerializers.INT);
     private static final EntityDataAccessor<Boolean> DATA_CRITICALLY_INJURED = SynchedEntityData.defineId(
             CompanionEntity.class, EntityDataSerializers.BOOLEAN);
     private static final EntityDataAccessor<Integer> DATA_BASE_PRICE = SynchedEntityData.defineId(
@@ -114,11 +117,10 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
     private Runnable onRangedAttackCallback = null;
 
     /**
-     * UUID of the player currently interacting with this companion (recruitment
+     * Handle to the player currently interacting with this companion (recruitment
      * screen open)
      */
-    @Nullable
-    private UUID interactingPlayerUUID = null;
+    private final PlayerHandle interactingPlayer = new PlayerHandle();
 
     /**
      * Timeout counter to auto-clear interaction if player disconnects or screen
@@ -129,6 +131,9 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
     /** Maximum ticks before interaction auto-clears (30 seconds = 600 ticks) */
     private static final int INTERACTION_TIMEOUT_TICKS = 600;
 
+    /** Final price quoted to the interacting player when the recruitment screen opened, -1 if none */
+    private int recruitmentQuote = -1;
+
     /**
      * Delay in ticks before holstering weapon after losing target (100 ticks = 5
      * seconds)
@@ -147,12 +152,27 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      */
     private int gapJumpCooldown = 0;
 
+    /**
+     * Player hits waiting to be turned into villager gossip, by player UUID.
+     * Batched so rapid hits (multishot, sweeping, fire ticks) cost one villager query.
+     * Server-side only, not persisted.
+     */
+    private final Object2IntMap<UUID> pendingGossipHits = new Object2IntOpenHashMap<>();
+
+    /** Ticks until pending gossip hits are applied */
+    private int gossipFlushDelay = 0;
+
+    /** Negative gossip added to each nearby villager per player hit */
+    private static final int GOSSIP_PER_HIT = 25;
+
+    /** Ticks player hits are batched before their gossip is applied (5 ticks = 0.25 seconds) */
+    private static final int GOSSIP_BATCH_TICKS = 5;
+
     /** Cooldown duration in ticks after a gap jump attempt (10 ticks = 0.5 seconds) */
     private static final int GAP_JUMP_COOLDOWN_TICKS = 10;
 
-    /** UUID of the player who owns this companion (null if unbought) */
-    @Nullable
-    private UUID ownerUUID = null;
+    /** Handle to the player who owns this companion (unset if unbought) */
+    private final PlayerHandle owner = new PlayerHandle();
 
     /** Current behavioral mode */
     private CompanionMode currentMode = CompanionMode.WANDER;
@@ -160,10 +180,59 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
     /** Current combat stance controlling targeting behavior */
     private CombatStance currentStance = CombatStance.AGGRESSIVE;
 
+    /** Slot in the owner's formation assigned by {@link FormationPlanner}, -1 if unassigned */
+    private int formationSlot = -1;
+
+    /** Center of the village this companion spawned to guard, null if not bound to one */
+    @Nullable
+    private BlockPos homeVillage;
+
+    /**
+     * Goals registered per state, server-side only. Created in {@link #registerGoals},
+     * which runs during the superclass constructor, so it must not have an initializer.
+     */
+    @Nullable
+    private CompanionGoalSets goalSets;
+
+    /** Whether the state goals depend on changed since the goal sets were last applied */
+    private boolean goalSetsDirty = true;
+
+    /** Slot for the periodic critical injury health check */
+    private final ScheduledCheck healthCheck = new ScheduledCheck(CompanionScheduler.Check.HEALTH);
+
+    // ========== AI Level of Detail ==========
+
+    /** AI detail from distance to the nearest player. Server-side only, not persisted. */
+    private AiLod aiLod = AiLod.FULL;
+
+    /** Control flag updates until the AI level of detail is recomputed */
+    private int aiLodUpdateDelay = 0;
+
+    /** Control flag updates since the last reduced-rate target scan window */
+    private int aiLodScanWindow = 0;
+
+    /** Ticks this companion stays at full AI detail after being hurt */
+    private int aiWakeTicks = 0;
+
+    /** Control flag updates between AI level of detail recomputations (4 x 5 ticks = 1 second) */
+    private static final int AI_LOD_UPDATE_INTERVAL = 4;
+
+    /** Ticks of full AI detail after being hurt (200 ticks = 10 seconds) */
+    private static final int AI_WAKE_TICKS = 200;
+
     // ========== Condition System ==========
 
-    /** Set of currently active conditions affecting this companion */
-    private final Set<CompanionCondition> activeConditions = new HashSet<>();
+    /** Currently active conditions, indexed by {@link CompanionConditions#ordinal} (null if inactive) */
+    private final CompanionCondition[] activeConditions = new CompanionCondition[CompanionConditions.count()];
+
+    /** Bit per active condition ordinal */
+    private long activeConditionBits = 0L;
+
+    /** Bit per {@link ActionType} ordinal blocked by any active condition, rebuilt on condition changes */
+    private int blockedActionBits = 0;
+
+    /** Whether any active condition disables combat, rebuilt on condition changes */
+    private boolean combatDisabled = false;
 
     public CompanionEntity(EntityType<? extends CompanionEntity> entityType, Level level) {
         super(entityType, level);
@@ -215,7 +284,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
         builder.define(DATA_COMBAT_TYPE, CompanionType.MELEE.ordinal());
         builder.define(DATA_SKIN_INDEX, 0);
         builder.define(DATA_CHARGING, false);
-        builder.define(DATA_TEAM, DEFAULT_TEAM);
+        builder.define(DATA_TEAM_ID, CompanionTeams.DEFAULT_TEAM_ID);
         builder.define(DATA_CRITICALLY_INJURED, false);
         builder.define(DATA_BASE_PRICE, 0);
         builder.define(DATA_MODE_ID, CompanionMode.WANDER.getId());
@@ -225,60 +294,10 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
 
     @Override
     protected void registerGoals() {
-        // ========== BEHAVIOR GOALS ==========
-        // All goals are registered once; they use canUse()/canContinueToUse() to
-        // determine when to run based on mode, stance, and conditions.
-
-        // Priority 0: Interaction - stops movement and looks at player during
-        // recruitment screen
-        this.goalSelector.addGoal(0, new CompanionInteractionGoal(this));
-
-        // Priority 1: Swimming (respects conditions via CompanionFloatGoal)
-        this.goalSelector.addGoal(1, new CompanionFloatGoal(this));
-
-        // Priority 1: Flee from attackers (active when shouldFlee() returns true)
-        this.goalSelector.addGoal(1, new CompanionFleeFromAttackerGoal(this));
-
-        // Priority 1: Combat goals - both registered, but check combat type in canUse()
-        this.goalSelector.addGoal(1, new CompanionMeleeAttackGoal(this, 1.0, true));
-        this.goalSelector.addGoal(1, new CompanionRangedAttackGoal(this, 1.0, 20, 15.0F, 6.0F));
-
-        // Priority 3: Door interaction (like villagers)
-        this.goalSelector.addGoal(3, new OpenDoorGoal(this, true));
-
-        // Priority 5: Village binding
-        this.goalSelector.addGoal(5, new MoveTowardsRestrictionGoal(this, 1.0));
-
-        // Priority 6: Movement goals - both registered, check mode in canUse()
-        this.goalSelector.addGoal(6, new CompanionFollowOwnerGoal(this, 1.0));
-        this.goalSelector.addGoal(6, new CompanionWaterAvoidingRandomStrollGoal(this, 0.9));
-
-        // Priority 7-8: Looking around
-        this.goalSelector.addGoal(7, new LookAtPlayerGoal(this, Player.class, 8.0F));
-        this.goalSelector.addGoal(8, new RandomLookAroundGoal(this));
-
-        // ========== TARGET GOALS ==========
-        // All target goals use canUse() checks based on stance.
-
-        // Priority 2: Retaliate when hurt (active when canRetaliate() returns true)
-        this.targetSelector.addGoal(2, new CompanionHurtByTargetGoal(this));
-
-        // Priority 3: Defend teammates (active when canDefendTeammates() returns true)
-        this.targetSelector.addGoal(3, new CompanionDefendTeammatesGoal(this));
-
-        // Priority 3: Team coordination - defend and assist (active when
-        // canAssistTeammates() returns true)
-        this.targetSelector.addGoal(3, new CompanionTeamCoordinationGoal(this));
-
-        // Priority 4: Assist owner (active when canAssistOwner() returns true)
-        this.targetSelector.addGoal(4, new CompanionAssistOwnerGoal(this));
-
-        // Priority 5: Proactively attack monsters (active when canProactivelyAttack()
-        // returns true)
-        this.targetSelector.addGoal(5, new CompanionNearestAttackableTargetGoal(this));
-
-        // Priority 6: Defend village (active when canDefendVillage() returns true)
-        this.targetSelector.addGoal(6, new CompanionDefendVillageGoal(this));
+        // Goals are created once and registered per mode, stance and condition state;
+        // see CompanionGoalSets for the full list. Runs before field initializers,
+        // so only the goal sets are created here and they are applied on the first tick.
+        this.goalSets = new CompanionGoalSets(this);
     }
 
     @Nullable
@@ -325,6 +344,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
 
     public void setCombatType(CompanionType type) {
         this.entityData.set(DATA_COMBAT_TYPE, type.ordinal());
+        invalidateGoalSets();
     }
 
     public int getSkinIndex() {
@@ -343,12 +363,43 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
         this.entityData.set(DATA_CHARGING, charging);
     }
 
+    /**
+     * Gets the interned team ID, as assigned by {@link CompanionTeams}.
+     * Synced to clients and safe to compare on hot paths.
+     */
+    public int getTeamId() {
+        return this.entityData.get(DATA_TEAM_ID);
+    }
+
+    public void setTeamId(int teamId) {
+        this.entityData.set(DATA_TEAM_ID, teamId);
+        invalidateGoalSets();
+    }
+
+    /**
+     * Gets the team key (e.g. "village_guard" or "player_&lt;uuid&gt;").
+     * Resolved through the server's team registry; on the client only the
+     * default team can be resolved.
+     *
+     * @return The team key, or null if it cannot be resolved on this side
+     */
+    @Nullable
     public String getCompanionTeam() {
-        return this.entityData.get(DATA_TEAM);
+        if (this.level() instanceof ServerLevel serverLevel) {
+            return CompanionTeams.get(serverLevel.getServer()).getKey(getTeamId());
+        }
+        return isInVillagerTeam() ? DEFAULT_TEAM : null;
     }
 
+    /**
+     * Sets the team by key, interning it into a team ID. Server-side only.
+     *
+     * @param team The team key, or null for the default team
+     */
     public void setCompanionTeam(String team) {
-        this.entityData.set(DATA_TEAM, team != null ? team : DEFAULT_TEAM);
+        if (this.level() instanceof ServerLevel serverLevel) {
+            setTeamId(CompanionTeams.get(serverLevel.getServer()).getId(team != null ? team : DEFAULT_TEAM));
+        }
     }
 
     /**
@@ -360,7 +411,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      */
     public boolean isOnSameTeam(@Nullable LivingEntity entity) {
         if (entity instanceof CompanionEntity otherCompanion) {
-            return this.getCompanionTeam().equals(otherCompanion.getCompanionTeam());
+            return this.getTeamId() == otherCompanion.getTeamId();
         }
         return false;
     }
@@ -435,8 +486,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
 
     /**
      * Sets the behavioral mode.
-     * Goals check the mode in their canUse() methods, so no goal manipulation
-     * needed.
+     * The goals for the new mode are swapped in on the next tick.
      *
      * @param mode The new mode to set
      */
@@ -447,6 +497,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
 
         this.currentMode = mode;
         this.entityData.set(DATA_MODE_ID, mode.getId());
+        invalidateGoalSets();
     }
 
     // ========== Combat Stance System ==========
@@ -530,13 +581,12 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      * Used to determine if they should defend villages.
      */
     public boolean isInVillagerTeam() {
-        return DEFAULT_TEAM.equals(getCompanionTeam());
+        return getTeamId() == CompanionTeams.DEFAULT_TEAM_ID;
     }
 
     /**
      * Sets the combat stance.
-     * Goals check the stance in their canUse() methods, so no goal manipulation
-     * needed.
+     * The goals for the new stance are swapped in on the next tick.
      *
      * @param stance The new stance to set
      */
@@ -547,6 +597,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
 
         this.currentStance = stance;
         this.entityData.set(DATA_COMBAT_STANCE, stance.getId());
+        invalidateGoalSets();
 
         // Clear target when entering PASSIVE stance
         if (stance == CombatStance.PASSIVE) {
@@ -603,6 +654,100 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
         }
     }
 
+    // ========== Goal Sets ==========
+
+    /**
+     * Marks the registered goals as stale after a mode, stance, combat type, condition,
+     * owner or team change. The new goal set is applied at the start of the next tick,
+     * outside of goal selector ticking.
+     */
+    private void invalidateGoalSets() {
+        this.goalSetsDirty = true;
+    }
+
+    // ========== AI Level of Detail ==========
+
+    /**
+     * Gets the AI level of detail this companion currently runs at.
+     * A companion with a target always runs at full detail.
+     */
+    public AiLod getAiLod() {
+        return this.getTarget() != null ? AiLod.FULL : this.aiLod;
+    }
+
+    /**
+     * Switches this companion to full AI detail for {@link #AI_WAKE_TICKS},
+     * re-enabling any suspended goals right away.
+     */
+    public void wakeAi() {
+        this.aiWakeTicks = AI_WAKE_TICKS;
+        if (this.aiLod != AiLod.FULL) {
+            this.aiLod = AiLod.FULL;
+            this.aiLodUpdateDelay = AI_LOD_UPDATE_INTERVAL;
+            applyControlFlags();
+        }
+    }
+
+    /**
+     * Applies the AI level of detail on top of the vanilla control flags.
+     * Called every 5 ticks by the vanilla mob tick; goals whose flags are disabled are
+     * neither polled nor kept running.
+     */
+    @Override
+    protected void updateControlFlags() {
+        if (this.aiWakeTicks > 0) {
+            this.aiWakeTicks -= 5;
+        }
+        if (--this.aiLodUpdateDelay <= 0) {
+            this.aiLod = computeAiLod();
+            this.aiLodUpdateDelay = AI_LOD_UPDATE_INTERVAL;
+        }
+        // Open the target selector for one update in every REDUCED_RATE_DIVISOR
+        if (getAiLod() == AiLod.REDUCED && ++this.aiLodScanWindow >= AiLod.REDUCED_RATE_DIVISOR) {
+            this.aiLodScanWindow = 0;
+        }
+
+        applyControlFlags();
+    }
+
+    /**
+     * Sets the vanilla control flags and restricts them for the current AI level of
+     * detail. Only reads LOD state, so it can be re-applied at any time.
+     */
+    private void applyControlFlags() {
+        super.updateControlFlags();
+
+        switch (getAiLod()) {
+            case FULL -> this.targetSelector.enableControlFlag(Goal.Flag.TARGET);
+            case REDUCED -> {
+                this.goalSelector.disableControlFlag(Goal.Flag.LOOK);
+                this.targetSelector.setControlFlag(Goal.Flag.TARGET, this.aiLodScanWindow == 0);
+            }
+            case DORMANT -> {
+                // JUMP stays enabled so the float goal keeps dormant companions from drowning
+                this.goalSelector.disableControlFlag(Goal.Flag.MOVE);
+                this.goalSelector.disableControlFlag(Goal.Flag.LOOK);
+                this.targetSelector.disableControlFlag(Goal.Flag.TARGET);
+            }
+        }
+    }
+
+    private AiLod computeAiLod() {
+        if (this.aiWakeTicks > 0 || this.getTarget() != null || isBeingInteractedWith()) {
+            return AiLod.FULL;
+        }
+        // Stress scenarios measure full AI, even on a headless server with no player nearby
+        if (ScenarioRunner.pinsFullAi(this)) {
+            return AiLod.FULL;
+        }
+        // Followers stay with their owner, wherever other players are
+        if (this.getMode() == CompanionMode.FOLLOW && this.getOwner() != null) {
+            return AiLod.FULL;
+        }
+        Player nearest = this.level().getNearestPlayer(this, -1.0);
+        return AiLod.forDistanceSqr(nearest != null ? this.distanceToSqr(nearest) : Double.MAX_VALUE);
+    }
+
     // ========== Gap Jump System ==========
 
     /**
@@ -610,18 +755,23 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      * Only called when sprinting and on ground, with no active cooldown.
      */
     private void attemptGapJump() {
-        // Check if we're near a gap edge
-        if (!GapJumpHelper.isNearGapEdge(this)) {
-            return;
-        }
+        long profileStart = CompanionProfiler.start(this);
+        try {
+            // Check if we're near a gap edge
+            if (!GapJumpHelper.isNearGapEdge(this)) {
+                return;
+            }
 
-        // Detect the full gap
-        GapJumpHelper.GapInfo gap = GapJumpHelper.detectGapAhead(this);
+            // Detect the full gap
+            GapJumpHelper.GapInfo gap = GapJumpHelper.detectGapAhead(this);
 
-        // Check if we should jump
-        if (GapJumpHelper.shouldJump(this, gap)) {
-            GapJumpHelper.performGapJump(this, gap);
-            gapJumpCooldown = GAP_JUMP_COOLDOWN_TICKS;
+            // Check if we should jump
+            if (GapJumpHelper.shouldJump(this, gap)) {
+                GapJumpHelper.performGapJump(this, gap);
+                gapJumpCooldown = GAP_JUMP_COOLDOWN_TICKS;
+            }
+        } finally {
+            CompanionProfiler.stop(this, CompanionProfiler.GAP_JUMP, profileStart);
         }
     }
 
@@ -637,7 +787,11 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
         if (!condition.isEnabled()) {
             return; // Condition is disabled in config
         }
-        if (activeConditions.add(condition)) {
+        int ordinal = conditionOrdinal(condition);
+        if (activeConditions[ordinal] == null) {
+            activeConditions[ordinal] = condition;
+            activeConditionBits |= 1L << ordinal;
+            rebuildConditionCaches();
             condition.onApply(this);
         }
     }
@@ -648,7 +802,11 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      * @param condition The condition to remove
      */
     public void removeCondition(CompanionCondition condition) {
-        if (activeConditions.remove(condition)) {
+        int ordinal = conditionOrdinal(condition);
+        if (activeConditions[ordinal] != null) {
+            activeConditions[ordinal] = null;
+            activeConditionBits &= ~(1L << ordinal);
+            rebuildConditionCaches();
             condition.onRemove(this);
         }
     }
@@ -660,7 +818,8 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      * @return true if the condition is active
      */
     public boolean hasCondition(CompanionCondition condition) {
-        return activeConditions.contains(condition);
+        int ordinal = CompanionConditions.ordinal(condition);
+        return ordinal >= 0 && (activeConditionBits & (1L << ordinal)) != 0;
     }
 
     /**
@@ -671,8 +830,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      * @return true if the action can be performed
      */
     public boolean canPerformAction(ActionType action) {
-        return activeConditions.stream()
-                .noneMatch(c -> c.getBlockedActions().contains(action));
+        return (blockedActionBits & (1 << action.ordinal())) == 0;
     }
 
     /**
@@ -682,8 +840,25 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      * @return true if combat is disabled
      */
     public boolean isCombatDisabled() {
-        return activeConditions.stream()
-                .anyMatch(CompanionCondition::disablesCombat);
+        return combatDisabled;
+    }
+
+    /**
+     * Recomputes the blocked-action mask and combat flag from the active conditions.
+     * Conditions change rarely, so the per-check cost stays a single bit test.
+     */
+    private void rebuildConditionCaches() {
+        this.blockedActionBits = CompanionConditions.blockedActionMask(activeConditions);
+        this.combatDisabled = CompanionConditions.disablesCombat(activeConditions);
+        invalidateGoalSets();
+    }
+
+    private static int conditionOrdinal(CompanionCondition condition) {
+        int ordinal = CompanionConditions.ordinal(condition);
+        if (ordinal < 0) {
+            throw new IllegalArgumentException("Unregistered companion condition: " + condition.getId());
+        }
+        return ordinal;
     }
 
     // ========== Sneaking State Management ==========
@@ -779,7 +954,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      */
     @Nullable
     public UUID getOwnerUUID() {
-        return this.ownerUUID;
+        return this.owner.getUUID();
     }
 
     /**
@@ -790,7 +965,8 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      * @param uuid The owner's UUID, or null to clear ownership
      */
     public void setOwnerUUID(@Nullable UUID uuid) {
-        this.ownerUUID = uuid;
+        this.owner.setUUID(uuid);
+        invalidateGoalSets();
     }
 
     /**
@@ -799,20 +975,18 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      * @return true if the companion is owned by a player
      */
     public boolean hasOwner() {
-        return this.ownerUUID != null;
+        return this.owner.isSet();
     }
 
     /**
      * Gets the player who owns this companion.
+     * Served from a cached handle, so it is cheap to call every tick.
      *
      * @return The owner player, or null if unbought or owner offline
      */
     @Nullable
     public Player getOwner() {
-        if (this.ownerUUID == null) {
-            return null;
-        }
-        return this.level().getPlayerByUUID(this.ownerUUID);
+        return this.owner.get(this.level());
     }
 
     /**
@@ -822,7 +996,46 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      * @return true if the companion is owned by this player
      */
     public boolean isOwnedBy(Player player) {
-        return this.ownerUUID != null && this.ownerUUID.equals(player.getUUID());
+        return player.getUUID().equals(this.owner.getUUID());
+    }
+
+    /**
+     * Gets this companion's slot in its owner's formation.
+     *
+     * @return The slot index, or -1 if unassigned
+     */
+    public int getFormationSlot() {
+        return this.formationSlot;
+    }
+
+    /**
+     * Sets this companion's slot in its owner's formation.
+     * Assigned by {@link FormationPlanner}; persisted so the companion keeps its place.
+     *
+     * @param slot The slot index, or -1 to clear
+     */
+    public void setFormationSlot(int slot) {
+        this.formationSlot = slot;
+    }
+
+    /**
+     * Gets the center of the village this companion guards.
+     * Guards of the same village share its reputation, hostility and threat scans.
+     *
+     * @return The village center, or null if the companion is not bound to a village
+     */
+    @Nullable
+    public BlockPos getHomeVillage() {
+        return this.homeVillage;
+    }
+
+    /**
+     * Binds this companion to a village. Set when it spawns in one; persisted.
+     *
+     * @param center The village center, or null to unbind
+     */
+    public void setHomeVillage(@Nullable BlockPos center) {
+        this.homeVillage = center != null ? center.immutable() : null;
     }
 
     /** Number of different recruitment messages available */
@@ -859,7 +1072,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      * @param player The player who opened the recruitment screen
      */
     public void setInteractingPlayer(Player player) {
-        this.interactingPlayerUUID = player.getUUID();
+        this.interactingPlayer.setUUID(player.getUUID());
         this.interactionTimeout = INTERACTION_TIMEOUT_TICKS;
     }
 
@@ -868,8 +1081,9 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      * Called when the recruitment screen is closed.
      */
     public void clearInteractingPlayer() {
-        this.interactingPlayerUUID = null;
+        this.interactingPlayer.setUUID(null);
         this.interactionTimeout = 0;
+        this.recruitmentQuote = -1;
     }
 
     /**
@@ -878,7 +1092,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      * @return true if a player has the recruitment screen open for this companion
      */
     public boolean isBeingInteractedWith() {
-        return this.interactingPlayerUUID != null;
+        return this.interactingPlayer.isSet();
     }
 
     /**
@@ -888,10 +1102,22 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
      */
     @Nullable
     public Player getInteractingPlayer() {
-        if (this.interactingPlayerUUID == null) {
-            return null;
+        return this.interactingPlayer.get(this.level());
+    }
+
+    /**
+     * Gets the recruitment price for a player.
+     * Returns the price quoted when the player opened the recruitment screen, so the
+     * purchase charges exactly what was shown; other players get a fresh quote.
+     *
+     * @param player The player recruiting this companion
+     * @return The final price in emeralds
+     */
+    public int getRecruitmentQuote(Player player) {
+        if (this.recruitmentQuote >= 0 && player.getUUID().equals(this.interactingPlayer.getUUID())) {
+            return this.recruitmentQuote;
         }
-        return this.level().getPlayerByUUID(this.interactingPlayerUUID);
+        return CompanionPricing.calculateFinalPrice(getBasePrice(), this, player);
     }
 
     public ResourceLocation getSkinTexture() {
@@ -914,14 +1140,24 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
         tag.putInt("Gender", getGender().ordinal());
         tag.putInt("CombatType", getCombatType().ordinal());
         tag.putInt("SkinIndex", getSkinIndex());
-        tag.putString("Team", getCompanionTeam());
+        tag.putInt("TeamId", getTeamId());
+        String team = getCompanionTeam();
+        if (team != null) {
+            tag.putString("Team", team);
+        }
         tag.putBoolean("CriticallyInjured", isCriticallyInjured());
         tag.putInt("BasePrice", getBasePrice());
         tag.putString("ModeId", currentMode.getId());
         tag.putString("CombatStance", currentStance.getId());
         tag.putBoolean("WeaponHolstered", isWeaponHolstered());
-        if (ownerUUID != null) {
-            tag.putUUID("OwnerUUID", ownerUUID);
+        if (hasOwner()) {
+            tag.putUUID("OwnerUUID", getOwnerUUID());
+        }
+        if (formationSlot >= 0) {
+            tag.putInt("FormationSlot", formationSlot);
+        }
+        if (homeVillage != null) {
+            tag.putLong("HomeVillage", homeVillage.asLong());
         }
 
         // Save armor equipment explicitly
@@ -959,8 +1195,12 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
         if (tag.contains("SkinIndex")) {
             setSkinIndex(tag.getInt("SkinIndex"));
         }
-        if (tag.contains("Team")) {
-            setCompanionTeam(tag.getString("Team"));
+        if (tag.contains("Team") && this.level() instanceof ServerLevel serverLevel) {
+            // Trust the stored ID only while it still maps to the same key
+            CompanionTeams teams = CompanionTeams.get(serverLevel.getServer());
+            String team = tag.getString("Team");
+            int teamId = tag.getInt("TeamId");
+            setTeamId(team.equals(teams.getKey(teamId)) ? teamId : teams.getId(team));
         }
         if (tag.contains("CriticallyInjured")) {
             setCriticallyInjured(tag.getBoolean("CriticallyInjured"));
@@ -969,7 +1209,13 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
             setBasePrice(tag.getInt("BasePrice"));
         }
         if (tag.contains("OwnerUUID")) {
-            this.ownerUUID = tag.getUUID("OwnerUUID");
+            setOwnerUUID(tag.getUUID("OwnerUUID"));
+        }
+        if (tag.contains("FormationSlot")) {
+            setFormationSlot(tag.getInt("FormationSlot"));
+        }
+        if (tag.contains("HomeVillage")) {
+            setHomeVillage(BlockPos.of(tag.getLong("HomeVillage")));
         }
         if (tag.contains("ModeId")) {
             String modeId = tag.getString("ModeId");
@@ -983,6 +1229,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
             this.currentStance = stance;
             this.entityData.set(DATA_COMBAT_STANCE, stance.getId());
         }
+        invalidateGoalSets();
         if (tag.contains("WeaponHolstered")) {
             setWeaponHolstered(tag.getBoolean("WeaponHolstered"));
         }
@@ -1052,7 +1299,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
 
         arrow.shoot(dx, dy + distance * 0.2, dz, 1.6F, (float) (14 - this.level().getDifficulty().getId() * 4));
         this.playSound(SoundEvents.SKELETON_SHOOT, 1.0F, 1.0F / (this.getRandom().nextFloat() * 0.4F + 0.8F));
-        this.level().addFreshEntity(arrow);
+        spawnArrow(arrow);
     }
 
     private void performCrossbowAttack(LivingEntity target) {
@@ -1067,7 +1314,18 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
         // Crossbows are faster and more accurate
         arrow.shoot(dx, dy + distance * 0.15, dz, 2.0F, (float) (10 - this.level().getDifficulty().getId() * 4));
         this.playSound(SoundEvents.CROSSBOW_SHOOT, 1.0F, 1.0F / (this.getRandom().nextFloat() * 0.4F + 0.8F));
+        spawnArrow(arrow);
+    }
+
+    /**
+     * Adds a fired arrow to the level and registers it as a companion arrow, tagging
+     * it with this companion's team and applying the companion arrow lifecycle.
+     */
+    private void spawnArrow(AbstractArrow arrow) {
         this.level().addFreshEntity(arrow);
+        if (this.level() instanceof ServerLevel serverLevel) {
+            CompanionProjectiles.get(serverLevel).register(arrow, this);
+        }
     }
 
     // Handle reputation when attacked by player
@@ -1076,8 +1334,20 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
         boolean hurt = super.hurt(source, amount);
 
         if (hurt && source.getEntity() instanceof Player player && !this.level().isClientSide) {
-            // Spread negative gossip to nearby villagers about this player
-            spreadNegativeGossip(player);
+            // Queue negative gossip to nearby villagers about this player
+            queueNegativeGossip(player);
+        }
+
+        // React at full detail even when no player is nearby
+        if (hurt && !this.level().isClientSide) {
+            CompanionMetrics.Counter.COMPANION_HURTS.increment();
+            wakeAi();
+        }
+
+        // Let teammates know who hit us
+        if (hurt && source.getEntity() instanceof LivingEntity attacker
+                && this.level() instanceof ServerLevel serverLevel) {
+            TeamBlackboard.get(serverLevel).reportAttack(this, attacker);
         }
 
         // Check for critical injury (health at or below threshold)
@@ -1090,19 +1360,59 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
         return hurt;
     }
 
-    private void spreadNegativeGossip(Player player) {
-        if (!(this.level() instanceof ServerLevel serverLevel))
+    /**
+     * Sets the combat target and publishes the engagement to the team blackboard
+     * so teammates can assist without polling.
+     */
+    @Override
+    public void setTarget(@Nullable LivingEntity target) {
+        super.setTarget(target);
+        if (this.level() instanceof ServerLevel serverLevel) {
+            TeamBlackboard.get(serverLevel).reportEngagement(this, this.getTarget());
+        }
+    }
+
+    /**
+     * Records a player hit for negative gossip. Hits are applied together after
+     * {@link #GOSSIP_BATCH_TICKS}, or right away if this companion is dying.
+     */
+    private void queueNegativeGossip(Player player) {
+        if (pendingGossipHits.isEmpty()) {
+            gossipFlushDelay = GOSSIP_BATCH_TICKS;
+        }
+        pendingGossipHits.mergeInt(player.getUUID(), 1, Integer::sum);
+
+        if (this.isDeadOrDying()) {
+            spreadNegativeGossip();
+        }
+    }
+
+    /**
+     * Applies all pending player hits as negative gossip in one pass.
+     * Each hit adds the same gossip as before; gossip caps make one combined add
+     * equivalent to adding each hit separately.
+     */
+    private void spreadNegativeGossip() {
+        if (pendingGossipHits.isEmpty() || !(this.level() instanceof ServerLevel serverLevel)) {
+            pendingGossipHits.clear();
             return;
+        }
 
         // Find nearby villagers
         AABB searchBox = this.getBoundingBox().inflate(16.0);
+        CompanionMetrics.Counter.ENTITY_SCANS.increment();
         List<Villager> villagers = serverLevel.getEntitiesOfClass(Villager.class, searchBox);
 
+        // Add negative gossip about each player, keeping cached village reputation in step
+        VillageReputation reputation = VillageReputation.get(serverLevel);
         for (Villager villager : villagers) {
-            // Add negative gossip about the player
-            villager.getGossips().add(player.getUUID(),
-                    net.minecraft.world.entity.ai.gossip.GossipType.MINOR_NEGATIVE, 25);
+            for (Object2IntMap.Entry<UUID> hits : pendingGossipHits.object2IntEntrySet()) {
+                reputation.addGossip(villager, hits.getKey(),
+                        net.minecraft.world.entity.ai.gossip.GossipType.MINOR_NEGATIVE,
+                        GOSSIP_PER_HIT * hits.getIntValue());
+            }
         }
+        pendingGossipHits.clear();
     }
 
     @Override
@@ -1117,11 +1427,38 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
 
     @Override
     public void tick() {
+        long profileStart = CompanionProfiler.start(this);
+        long timerStart = ServerTickTimer.startCompanion(this);
+        try {
+            tickCompanion();
+        } finally {
+            ServerTickTimer.stopCompanion(timerStart);
+            CompanionProfiler.stop(this, CompanionProfiler.COMPANION_TICK, profileStart);
+        }
+    }
+
+    private void tickCompanion() {
+        if (this.goalSetsDirty && this.goalSets != null && !this.level().isClientSide) {
+            this.goalSetsDirty = false;
+            this.goalSets.apply(this, this.goalSelector, this.targetSelector);
+        }
+
         super.tick();
 
-        if (!this.level().isClientSide) {
+        if (this.level() instanceof ServerLevel serverLevel) {
+            // Keep the spatial index current with position, team and owner changes,
+            // and move any published threat report along with the companion
+            if (CompanionIndex.get(serverLevel).update(this)) {
+                TeamBlackboard.get(serverLevel).relocate(this);
+            }
+
+            // Apply batched player hits as villager gossip
+            if (!pendingGossipHits.isEmpty() && --this.gossipFlushDelay <= 0) {
+                spreadNegativeGossip();
+            }
+
             // Handle interaction timeout
-            if (this.interactingPlayerUUID != null) {
+            if (isBeingInteractedWith()) {
                 // Check if player is still valid
                 Player interactingPlayer = getInteractingPlayer();
                 if (interactingPlayer == null || !interactingPlayer.isAlive()) {
@@ -1134,7 +1471,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
             }
 
             // Periodic health check for edge cases (regen effects, commands, etc.)
-            if (this.tickCount % 10 == 0 && ModConfig.get().isEnableCriticalInjury()) {
+            if (healthCheck.tryRun(this) && ModConfig.get().isEnableCriticalInjury()) {
                 boolean shouldBeInjured = this.getHealth() <= ModConfig.get().getCriticalInjuryThreshold();
                 if (this.isCriticallyInjured() != shouldBeInjured) {
                     setCriticallyInjured(shouldBeInjured);
@@ -1142,8 +1479,12 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
             }
 
             // Tick active conditions
-            for (CompanionCondition condition : activeConditions) {
-                condition.tick(this);
+            if (activeConditionBits != 0L) {
+                for (CompanionCondition condition : activeConditions) {
+                    if (condition != null) {
+                        condition.tick(this);
+                    }
+                }
             }
 
             if (isSprinting()) {
@@ -1162,7 +1503,10 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
                 stopSprinting();
             }
 
-            if (((this.getMode() == CompanionMode.FOLLOW && this.getOwner().isCrouching()) || this.isCriticallyInjured())) {
+            // Mirror the owner's sneaking in FOLLOW mode; an offline owner counts as standing
+            Player currentOwner = this.getMode() == CompanionMode.FOLLOW ? this.getOwner() : null;
+            boolean ownerCrouching = currentOwner != null && currentOwner.isCrouching();
+            if (ownerCrouching || this.isCriticallyInjured()) {
                 if (!this.isCrouching()) {
                     startSneaking();
                 }
@@ -1204,6 +1548,8 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
 
     @Override
     public void remove(RemovalReason reason) {
+        // Don't lose hits that were still batched when the companion unloads or is removed
+        spreadNegativeGossip();
         super.remove(reason);
     }
 
@@ -1229,7 +1575,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
         }
 
         // Only show recruitment screen for companions in the default team
-        if (!DEFAULT_TEAM.equals(getCompanionTeam())) {
+        if (!isInVillagerTeam()) {
             return super.mobInteract(player, hand);
         }
 
@@ -1245,6 +1591,7 @@ public class CompanionEntity extends PathfinderMob implements RangedAttackMob {
             // Use stored base price, apply reputation modifier for final price
             int basePrice = getBasePrice();
             int finalPrice = CompanionPricing.calculateFinalPrice(basePrice, this, player);
+            this.recruitmentQuote = finalPrice;
 
             // Send packet to open recruitment screen
             ModNetworking.get().sendOpenRecruitmentScreen(serverPlayer, this.getId(), basePrice, finalPrice);
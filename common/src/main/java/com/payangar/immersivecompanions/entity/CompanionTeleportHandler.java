@@ -1,7 +1,10 @@
 package com.payangar.immersivecompanions.entity;
 
+import com.payangar.immersivecompanions.entity.index.CompanionIndex;
 import com.payangar.immersivecompanions.entity.mode.CompanionMode;
 import com.payangar.immersivecompanions.entity.teleport.SafePositionFinder;
+import com.payangar.immersivecompanions.metrics.CompanionMetrics;
+import com.payangar.immersivecompanions.profiling.CompanionProfiler;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
@@ -14,7 +17,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles teleporting companions to their owner when the owner teleports.
- * Uses real-time entity search (like Waystones) instead of registry tracking.
+ * Looks up the owner's companions through the level's {@link CompanionIndex}.
  */
 public class CompanionTeleportHandler {
 
@@ -40,11 +43,11 @@ public class CompanionTeleportHandler {
 
     /**
      * Finds all companions near the player that should teleport.
-     * Uses real-time search like Waystones.
+     * Only the player's own companions are visited, via the owner index.
      */
     public static List<CompanionEntity> getCompanionsForTeleport(ServerPlayer player) {
-        return player.serverLevel().getEntitiesOfClass(
-            CompanionEntity.class,
+        return CompanionIndex.get(player.serverLevel()).getOwnedCompanions(
+            player.getUUID(),
             new AABB(player.blockPosition()).inflate(SEARCH_RADIUS),
             companion -> isValidForTeleport(companion, player)
         );
@@ -76,10 +79,18 @@ public class CompanionTeleportHandler {
     }
 
     private static void teleportCompanion(CompanionEntity companion, ServerLevel targetLevel, BlockPos targetPos) {
-        BlockPos safePos = SafePositionFinder.findSafePosition(targetLevel, targetPos, companion.getType());
+        BlockPos safePos;
+        long profileStart = CompanionProfiler.start(companion);
+        try {
+            safePos = SafePositionFinder.findSafePosition(targetLevel, targetPos, companion.getType());
+        } finally {
+            CompanionProfiler.stop(companion, CompanionProfiler.SAFE_POSITION, profileStart);
+        }
         if (safePos == null) {
+            CompanionMetrics.Counter.SAFE_POSITION_FAILURES.increment();
             safePos = targetPos;
         }
+        CompanionMetrics.Counter.TELEPORTS.increment();
 
         ServerLevel currentLevel = (ServerLevel) companion.level();
 
@@ -0,0 +1,109 @@
+package com.payangar.immersivecompanions.entity;
+
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+
+import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
+import java.util.UUID;
+
+/**
+ * Cached handle to a player referenced by UUID, such as a companion's owner.
+ *
+ * <p>Resolving a UUID through {@link Level#getPlayerByUUID} walks the level's player
+ * list, which is too slow to repeat on every tick and in every goal. The handle keeps
+ * a weak reference to the last resolved player and only resolves again when the
+ * player was removed, left the level, or when a player login, logout, respawn or
+ * dimension change bumped the global generation via {@link #invalidateAll()}.
+ *
+ * <p>On the server a failed lookup (player offline or in another dimension) is cached
+ * too, so an offline owner costs nothing until the next player event. Client levels
+ * gain and lose players as they enter tracking range without firing those events, so
+ * misses are never cached there.
+ */
+public class PlayerHandle {
+
+    /** Bumped whenever any player joins, leaves, respawns or changes dimension */
+    private static volatile int generation = 0;
+
+    @Nullable
+    private UUID uuid;
+
+    @Nullable
+    private WeakReference<Player> player;
+
+    /** Generation at which the cached result was resolved, -1 if never resolved */
+    private int resolvedGeneration = -1;
+
+    /** Level the cached result was resolved in */
+    @Nullable
+    private Level resolvedLevel;
+
+    /**
+     * Invalidates every handle. Call on player login/logout, respawn and dimension change.
+     */
+    public static void invalidateAll() {
+        generation++;
+    }
+
+    /**
+     * Gets the UUID this handle points to.
+     *
+     * @return The player's UUID, or null if unset
+     */
+    @Nullable
+    public UUID getUUID() {
+        return uuid;
+    }
+
+    /**
+     * Points this handle to another player UUID, dropping the cached player.
+     *
+     * @param uuid The player's UUID, or null to clear
+     */
+    public void setUUID(@Nullable UUID uuid) {
+        this.uuid = uuid;
+        this.player = null;
+        this.resolvedGeneration = -1;
+        this.resolvedLevel = null;
+    }
+
+    /**
+     * Checks if this handle points to a player UUID.
+     */
+    public boolean isSet() {
+        return uuid != null;
+    }
+
+    /**
+     * Resolves the player in the given level, using the cached reference when still valid.
+     *
+     * @param level The level the player must be in
+     * @return The player, or null if unset, offline or in another level
+     */
+    @Nullable
+    public Player get(Level level) {
+        if (uuid == null) {
+            return null;
+        }
+
+        if (resolvedGeneration == generation && resolvedLevel == level) {
+            if (player == null) {
+                if (!level.isClientSide()) {
+                    return null; // Cached miss - nothing changed since the last lookup
+                }
+            } else {
+                Player cached = player.get();
+                if (cached != null && !cached.isRemoved() && cached.level() == level) {
+                    return cached;
+                }
+            }
+        }
+
+        Player resolved = level.getPlayerByUUID(uuid);
+        player = resolved != null ? new WeakReference<>(resolved) : null;
+        resolvedGeneration = generation;
+        resolvedLevel = level;
+        return resolved;
+    }
+}
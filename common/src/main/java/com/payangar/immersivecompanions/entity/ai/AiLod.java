@@ -0,0 +1,45 @@
+package com.payangar.immersivecompanions.entity.ai;
+
+import com.payangar.immersivecompanions.config.ModConfig;
+
+/**
+ * AI level of detail for a companion, chosen from its distance to the nearest player.
+ *
+ * <p>Companions never despawn, so guards of every visited village keep ticking whenever
+ * their chunks do. Far from players their AI runs at reduced detail:
+ * <ul>
+ *   <li>FULL - every goal runs normally</li>
+ *   <li>REDUCED - looking around is suspended, wandering and target scans run at a
+ *       quarter of their normal rate</li>
+ *   <li>DORMANT - movement, looking and target goals are suspended; swimming still runs</li>
+ * </ul>
+ *
+ * <p>A companion that is hurt, has a target, or follows an online owner always runs at
+ * FULL detail.
+ */
+public enum AiLod {
+    FULL,
+    REDUCED,
+    DORMANT;
+
+    /** Reduced-rate goals run once per this many opportunities */
+    public static final int REDUCED_RATE_DIVISOR = 4;
+
+    /**
+     * Picks the tier for a squared distance to the nearest player.
+     *
+     * @param distanceSq Squared distance to the nearest player, or Double.MAX_VALUE if none
+     * @return The tier for that distance
+     */
+    public static AiLod forDistanceSqr(double distanceSq) {
+        if (!ModConfig.get().isEnableAiLod()) {
+            return FULL;
+        }
+        double dormant = ModConfig.get().getAiLodDormantRadius();
+        if (distanceSq > dormant * dormant) {
+            return DORMANT;
+        }
+        double reduced = ModConfig.get().getAiLodReducedRadius();
+        return distanceSq > reduced * reduced ? REDUCED : FULL;
+    }
+}
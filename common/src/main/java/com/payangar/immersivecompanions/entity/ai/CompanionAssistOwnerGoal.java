@@ -2,6 +2,8 @@ package com.payangar.immersivecompanions.entity.ai;
 
 import com.payangar.immersivecompanions.config.ModConfig;
 import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.entity.schedule.CompanionScheduler;
+import com.payangar.immersivecompanions.entity.schedule.ScheduledCheck;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.goal.target.TargetGoal;
 import net.minecraft.world.entity.ai.targeting.TargetingConditions;
@@ -16,9 +18,6 @@ import javax.annotation.Nullable;
  */
 public class CompanionAssistOwnerGoal extends TargetGoal {
 
-    /** How often to check for owner's target (in ticks) */
-    private static final int CHECK_INTERVAL = 20;
-
     /** How recent the owner's attack must be to assist (in ticks, 100 = 5 seconds) */
     private static final int RECENT_ATTACK_THRESHOLD = 100;
 
@@ -27,7 +26,7 @@ public class CompanionAssistOwnerGoal extends TargetGoal {
 
     @Nullable
     private LivingEntity ownerTarget;
-    private int checkTimer;
+    private final ScheduledCheck check = new ScheduledCheck(CompanionScheduler.Check.ASSIST_OWNER);
 
     public CompanionAssistOwnerGoal(CompanionEntity companion) {
         super(companion, false, false);
@@ -48,10 +47,9 @@ public class CompanionAssistOwnerGoal extends TargetGoal {
             return false;
         }
 
-        if (--checkTimer > 0) {
+        if (!check.tryRun(companion)) {
             return false;
         }
-        checkTimer = CHECK_INTERVAL;
 
         ownerTarget = findOwnerTarget();
         return ownerTarget != null;
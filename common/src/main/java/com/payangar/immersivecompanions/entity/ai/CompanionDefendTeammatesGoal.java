@@ -2,13 +2,15 @@ package com.payangar.immersivecompanions.entity.ai;
 
 import com.payangar.immersivecompanions.config.ModConfig;
 import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.entity.schedule.CompanionScheduler;
+import com.payangar.immersivecompanions.entity.schedule.ScheduledCheck;
+import com.payangar.immersivecompanions.entity.team.TeamBlackboard;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.goal.target.TargetGoal;
 import net.minecraft.world.entity.ai.targeting.TargetingConditions;
-import net.minecraft.world.phys.AABB;
 
 import javax.annotation.Nullable;
-import java.util.List;
 
 /**
  * AI goal that makes companions defend same-team companions under attack.
@@ -19,9 +21,6 @@ import java.util.List;
  */
 public class CompanionDefendTeammatesGoal extends TargetGoal {
 
-    /** How often to check for teammates in danger (in ticks) */
-    private static final int CHECK_INTERVAL = 20;
-
     /** How recent an attack must be to respond (in ticks, 100 = 5 seconds) */
     private static final int RECENT_HURT_THRESHOLD = 100;
 
@@ -30,7 +29,8 @@ public class CompanionDefendTeammatesGoal extends TargetGoal {
 
     @Nullable
     private LivingEntity attackerTarget;
-    private int checkTimer;
+    private final ScheduledCheck check = new ScheduledCheck(CompanionScheduler.Check.DEFEND_TEAMMATES);
+    private long lastRevision;
 
     public CompanionDefendTeammatesGoal(CompanionEntity companion) {
         super(companion, false, false);
@@ -50,12 +50,19 @@ public class CompanionDefendTeammatesGoal extends TargetGoal {
             return false;
         }
 
-        if (--checkTimer > 0) {
+        if (!(companion.level() instanceof ServerLevel serverLevel)) {
             return false;
         }
-        checkTimer = CHECK_INTERVAL;
 
-        attackerTarget = findDefendTarget();
+        // React as soon as a teammate in range publishes something, otherwise re-check periodically
+        TeamBlackboard blackboard = TeamBlackboard.get(serverLevel);
+        long revision = blackboard.getRevision(companion, ModConfig.get().getTeamCoordinationRange());
+        if (!check.tryRun(companion, revision != lastRevision)) {
+            return false;
+        }
+        lastRevision = revision;
+
+        attackerTarget = findDefendTarget(blackboard);
         return attackerTarget != null;
     }
 
@@ -89,62 +96,32 @@ public class CompanionDefendTeammatesGoal extends TargetGoal {
     }
 
     /**
-     * Finds an entity that is attacking a same-team companion.
+     * Finds the freshest entity attacking a same-team companion, as published to the
+     * team blackboard.
      *
      * @return The attacker to target, or null if none found
      */
     @Nullable
-    private LivingEntity findDefendTarget() {
+    private LivingEntity findDefendTarget(TeamBlackboard blackboard) {
         double range = ModConfig.get().getTeamCoordinationRange();
-        AABB searchBox = companion.getBoundingBox().inflate(range);
-        List<CompanionEntity> teammates = companion.level().getEntitiesOfClass(
-                CompanionEntity.class, searchBox,
-                this::isValidTeammate
-        );
-
-        for (CompanionEntity teammate : teammates) {
-            LivingEntity attacker = teammate.getLastHurtByMob();
-            if (attacker == null || !attacker.isAlive()) {
-                continue;
-            }
-
-            // Check if the attack was recent
-            int timeSinceHurt = teammate.tickCount - teammate.getLastHurtByMobTimestamp();
-            if (timeSinceHurt > RECENT_HURT_THRESHOLD) {
-                continue;
-            }
-
-            // Don't target same-team companions
-            if (companion.isOnSameTeam(attacker)) {
-                continue;
-            }
-
-            // Don't target owner
-            if (attacker.equals(companion.getOwner())) {
-                continue;
-            }
-
-            // Verify we can actually target this entity
-            if (!targetConditions.test(companion, attacker)) {
-                continue;
-            }
-
-            return attacker;
-        }
-
-        return null;
+        return blackboard.findRecentAttacker(companion, range, RECENT_HURT_THRESHOLD, this::isValidAttacker);
     }
 
     /**
-     * Checks if an entity is a valid teammate for coordination.
+     * Checks if a teammate's attacker can be targeted.
      */
-    private boolean isValidTeammate(CompanionEntity other) {
-        // Must be a different companion
-        if (other == companion) {
+    private boolean isValidAttacker(LivingEntity attacker) {
+        // Don't target same-team companions
+        if (companion.isOnSameTeam(attacker)) {
+            return false;
+        }
+
+        // Don't target owner
+        if (attacker.equals(companion.getOwner())) {
             return false;
         }
 
-        // Must be on the same team
-        return companion.isOnSameTeam(other);
+        // Verify we can actually target this entity
+        return targetConditions.test(companion, attacker);
     }
 }
@@ -1,19 +1,21 @@
 package com.payangar.immersivecompanions.entity.ai;
 
 import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.entity.formation.FormationPlanner;
 import com.payangar.immersivecompanions.entity.mode.CompanionMode;
 import com.payangar.immersivecompanions.entity.teleport.SafePositionFinder;
+import com.payangar.immersivecompanions.metrics.CompanionMetrics;
+import com.payangar.immersivecompanions.profiling.CompanionProfiler;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.goal.Goal;
 import net.minecraft.world.entity.ai.navigation.PathNavigation;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
 
 import java.util.EnumSet;
-import java.util.List;
 
 /**
  * AI goal that makes owned companions follow their owner.
@@ -32,17 +34,6 @@ public class CompanionFollowOwnerGoal extends Goal {
     /** Distance threshold to stop sprinting (caught up with owner) */
     private static final double SPRINT_STOP_DISTANCE = 7.0;
 
-    /** Minimum blocks between companions */
-    private static final double MIN_COMPANION_SPACING = 1.5;
-    /** Distance from owner where companions position */
-    private static final double FORMATION_RADIUS = 2.5;
-    /** Search radius for finding nearby companions */
-    private static final double COMPANION_SEARCH_RADIUS = 10.0;
-    /** Golden angle in radians for optimal circular distribution */
-    private static final double GOLDEN_ANGLE = Math.toRadians(137.5);
-    /** Maximum collision avoidance attempts */
-    private static final int MAX_COLLISION_ATTEMPTS = 8;
-
     private final CompanionEntity companion;
     private final double speedModifier;
     private final PathNavigation navigation;
@@ -132,7 +123,7 @@ public class CompanionFollowOwnerGoal extends Goal {
         if (--this.timeToRecalcPath <= 0) {
             this.timeToRecalcPath = PATH_RECALC_DELAY;
             if (!companion.isLeashed() && !companion.isPassenger()) {
-                Vec3 targetPos = calculateSpacedTargetPosition();
+                Vec3 targetPos = getFormationTarget();
                 navigation.moveTo(targetPos.x, targetPos.y, targetPos.z, speedModifier);
             }
         }
@@ -155,110 +146,55 @@ public class CompanionFollowOwnerGoal extends Goal {
     }
 
     private void teleportToOwner() {
-        // Calculate offset position for teleport search center
-        Vec3 offsetPos = calculatePositionAtAngle(getCompanionAngle(), FORMATION_RADIUS);
+        // Use this companion's formation slot as the teleport search center
+        Vec3 offsetPos = getFormationSlotPosition();
         BlockPos searchCenter = BlockPos.containing(offsetPos);
 
-        // Use SafePositionFinder with extended search parameters
-        BlockPos safePos = SafePositionFinder.findSafePositionExtended(
-                level, searchCenter, companion.getType(), 5, 2, 20);
-
-        // Fallback to owner position if offset search fails
-        if (safePos == null) {
+        BlockPos safePos;
+        long profileStart = CompanionProfiler.start(companion);
+        try {
+            // Use SafePositionFinder with extended search parameters
             safePos = SafePositionFinder.findSafePositionExtended(
-                    level, owner.blockPosition(), companion.getType(), 5, 2, 20);
+                    level, searchCenter, companion.getType(), 5, 2, 20);
+
+            // Fallback to owner position if offset search fails
+            if (safePos == null) {
+                safePos = SafePositionFinder.findSafePositionExtended(
+                        level, owner.blockPosition(), companion.getType(), 5, 2, 20);
+            }
+        } finally {
+            CompanionProfiler.stop(companion, CompanionProfiler.SAFE_POSITION, profileStart);
         }
 
         if (safePos != null) {
             companion.moveTo(safePos.getX() + 0.5, safePos.getY(), safePos.getZ() + 0.5,
                     companion.getYRot(), companion.getXRot());
             navigation.stop();
+            CompanionMetrics.Counter.TELEPORTS.increment();
+        } else {
+            CompanionMetrics.Counter.SAFE_POSITION_FAILURES.increment();
         }
     }
 
     /**
-     * Calculates a target position that accounts for spacing from other companions.
-     * Uses golden angle distribution for optimal spread when multiple companions follow the same owner.
+     * Gets the position this companion should move to from the owner's formation plan.
+     * Companions following alone go straight to the owner.
      */
-    private Vec3 calculateSpacedTargetPosition() {
-        Vec3 ownerPos = owner.position();
-        List<CompanionEntity> nearbyCompanions = getNearbyFollowingCompanions();
-
-        // If alone, go directly to owner
-        if (nearbyCompanions.isEmpty()) {
-            return ownerPos;
-        }
-
-        double baseAngle = getCompanionAngle();
-        double minSpacingSq = MIN_COMPANION_SPACING * MIN_COMPANION_SPACING;
-
-        // Try base angle first, then rotate if collision detected
-        for (int attempt = 0; attempt < MAX_COLLISION_ATTEMPTS; attempt++) {
-            double angle = baseAngle + (attempt * Math.PI / 4); // Rotate 45° each attempt
-            Vec3 candidatePos = calculatePositionAtAngle(angle, FORMATION_RADIUS);
-
-            // Check for collision with other companions' target positions
-            boolean collision = false;
-            for (CompanionEntity other : nearbyCompanions) {
-                double otherAngle = getAngleForEntity(other);
-                Vec3 otherTargetPos = calculatePositionAtAngleFor(otherAngle, FORMATION_RADIUS, ownerPos);
-
-                if (candidatePos.distanceToSqr(otherTargetPos) < minSpacingSq) {
-                    collision = true;
-                    break;
-                }
-            }
-
-            if (!collision) {
-                return candidatePos;
-            }
+    private Vec3 getFormationTarget() {
+        if (!(level instanceof ServerLevel serverLevel) || !(owner instanceof Player player)) {
+            return owner.position();
         }
-
-        // Fallback: use base angle position even if there's a collision
-        return calculatePositionAtAngle(baseAngle, FORMATION_RADIUS);
+        return FormationPlanner.get(serverLevel).getTargetPosition(companion, player);
     }
 
     /**
-     * Gets companions within search radius that are following the same owner.
+     * Gets the position of this companion's formation slot, even when following alone.
      */
-    private List<CompanionEntity> getNearbyFollowingCompanions() {
-        AABB searchBox = companion.getBoundingBox().inflate(COMPANION_SEARCH_RADIUS);
-        return level.getEntitiesOfClass(CompanionEntity.class, searchBox, other ->
-                other != companion &&
-                other.getMode() == CompanionMode.FOLLOW &&
-                other.getOwner() != null &&
-                other.getOwner().equals(owner)
-        );
-    }
-
-    /**
-     * Calculates the unique angle for this companion using golden angle distribution.
-     */
-    private double getCompanionAngle() {
-        return getAngleForEntity(companion);
-    }
-
-    /**
-     * Calculates the unique angle for any entity using golden angle distribution.
-     */
-    private double getAngleForEntity(CompanionEntity entity) {
-        return (entity.getId() * GOLDEN_ANGLE) % (2 * Math.PI);
-    }
-
-    /**
-     * Calculates a position at the given angle and radius from the owner.
-     */
-    private Vec3 calculatePositionAtAngle(double angle, double radius) {
-        return calculatePositionAtAngleFor(angle, radius, owner.position());
-    }
-
-    /**
-     * Calculates a position at the given angle and radius from a center point.
-     */
-    private Vec3 calculatePositionAtAngleFor(double angle, double radius, Vec3 center) {
-        double offsetX = Math.cos(angle) * radius;
-        double offsetZ = Math.sin(angle) * radius;
-        return new Vec3(center.x + offsetX, center.y, center.z + offsetZ);
+    private Vec3 getFormationSlotPosition() {
+        if (!(level instanceof ServerLevel serverLevel) || !(owner instanceof Player player)) {
+            return owner.position();
+        }
+        return FormationPlanner.get(serverLevel).getSlotPosition(companion, player);
     }
 
     private Player getOwner() {
@@ -0,0 +1,239 @@
+package com.payangar.immersivecompanions.entity.ai;
+
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.entity.combat.CombatStance;
+import com.payangar.immersivecompanions.entity.condition.ActionType;
+import com.payangar.immersivecompanions.entity.mode.CompanionMode;
+import com.payangar.immersivecompanions.profiling.ProfiledGoal;
+import net.minecraft.world.entity.ai.goal.Goal;
+import net.minecraft.world.entity.ai.goal.GoalSelector;
+import net.minecraft.world.entity.ai.goal.LookAtPlayerGoal;
+import net.minecraft.world.entity.ai.goal.MoveTowardsRestrictionGoal;
+import net.minecraft.world.entity.ai.goal.OpenDoorGoal;
+import net.minecraft.world.entity.ai.goal.RandomLookAroundGoal;
+import net.minecraft.world.entity.player.Player;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+/**
+ * The goals of one companion, registered with its goal selectors only while they can run.
+ *
+ * <p>Every goal is created once, but only the goals that can run in the companion's
+ * current state are added to the selectors. The state is reduced to a small key (mode,
+ * stance, combat type, and the condition, owner and team flags goals check), and the
+ * set of goals for every key is compiled up front and shared by all companions. When the
+ * state changes, only the goals entering or leaving the set are added or removed, so an
+ * idle companion polls a handful of goals instead of all of them.
+ *
+ * <p>Goals still check their own preconditions, which also covers the ticks between a
+ * state change and the next {@link #apply}.
+ */
+public class CompanionGoalSets {
+
+    // ========== State Key ==========
+
+    private static final int FOLLOW_MODE = 1;
+    private static final int STANCE_SHIFT = 1;
+    private static final int STANCE_MASK = 0b11 << STANCE_SHIFT;
+    private static final int RANGED = 1 << 3;
+    private static final int COMBAT_DISABLED = 1 << 4;
+    private static final int CRITICALLY_INJURED = 1 << 5;
+    private static final int SWIM_BLOCKED = 1 << 6;
+    private static final int OWNED = 1 << 7;
+    private static final int VILLAGER_TEAM = 1 << 8;
+    private static final int KEY_COUNT = 1 << 9;
+
+    /** Goal specs, in registration order; a compiled set is a bit mask over this list */
+    private static final List<Spec> SPECS = List.of(
+            // ========== BEHAVIOR GOALS ==========
+
+            // Priority 0: Interaction - stops movement and looks at player during
+            // recruitment screen
+            behavior(0, CompanionInteractionGoal::new, key -> true),
+
+            // Priority 1: Swimming, unless a condition blocks it
+            behavior(1, CompanionFloatGoal::new, key -> (key & SWIM_BLOCKED) == 0),
+
+            // Priority 1: Flee from attackers (PASSIVE stance or critically injured)
+            behavior(1, CompanionFleeFromAttackerGoal::new,
+                    key -> stance(key) == CombatStance.PASSIVE || (key & CRITICALLY_INJURED) != 0),
+
+            // Priority 1: Combat goals - one per combat type
+            behavior(1, companion -> new CompanionMeleeAttackGoal(companion, 1.0, true),
+                    key -> (key & (RANGED | COMBAT_DISABLED)) == 0),
+            behavior(1, companion -> new CompanionRangedAttackGoal(companion, 1.0, 20, 15.0F, 6.0F),
+                    key -> (key & (RANGED | COMBAT_DISABLED)) == RANGED),
+
+            // Priority 3: Door interaction (like villagers)
+            behavior(3, companion -> new OpenDoorGoal(companion, true), key -> true),
+
+            // Priority 5: Village binding
+            behavior(5, companion -> new MoveTowardsRestrictionGoal(companion, 1.0), key -> true),
+
+            // Priority 6: Movement goals - one per mode
+            behavior(6, companion -> new CompanionFollowOwnerGoal(companion, 1.0),
+                    key -> (key & FOLLOW_MODE) != 0),
+            behavior(6, companion -> new CompanionWaterAvoidingRandomStrollGoal(companion, 0.9),
+                    key -> (key & FOLLOW_MODE) == 0),
+
+            // Priority 7-8: Looking around
+            behavior(7, companion -> new LookAtPlayerGoal(companion, Player.class, 8.0F), key -> true),
+            behavior(8, RandomLookAroundGoal::new, key -> true),
+
+            // ========== TARGET GOALS ==========
+
+            // Priority 2: Retaliate when hurt (see CompanionEntity#canRetaliate)
+            target(2, CompanionHurtByTargetGoal::new, CompanionGoalSets::canRetaliate),
+
+            // Priority 3: Defend teammates (see CompanionEntity#canDefendTeammates)
+            target(3, CompanionDefendTeammatesGoal::new, CompanionGoalSets::canRetaliate),
+
+            // Priority 3: Team coordination (see CompanionEntity#canAssistTeammates)
+            target(3, CompanionTeamCoordinationGoal::new, CompanionGoalSets::canAssist),
+
+            // Priority 4: Assist owner (see CompanionEntity#canAssistOwner), owned companions only
+            target(4, CompanionAssistOwnerGoal::new, key -> canAssist(key) && (key & OWNED) != 0),
+
+            // Priority 5: Proactively attack monsters (see CompanionEntity#canProactivelyAttack)
+            target(5, CompanionNearestAttackableTargetGoal::new, CompanionGoalSets::canProactivelyAttack),
+
+            // Priority 6: Defend village (see CompanionEntity#canDefendVillage)
+            target(6, CompanionDefendVillageGoal::new,
+                    key -> canProactivelyAttack(key) && (key & VILLAGER_TEAM) != 0));
+
+    /** Compiled goal masks by state key, shared by all companions; never written after class init */
+    private static final long[] COMPILED = compileAll();
+
+    private final Goal[] goals;
+    private int appliedKey = -1;
+    private long appliedMask = 0L;
+
+    /**
+     * Creates every goal for a companion without registering any of them.
+     * Goals are wrapped for the {@link com.payangar.immersivecompanions.profiling.CompanionProfiler}.
+     * Call {@link #apply} to register the goals for the companion's state.
+     *
+     * @param companion The companion
+     */
+    public CompanionGoalSets(CompanionEntity companion) {
+        this.goals = new Goal[SPECS.size()];
+        for (int i = 0; i < goals.length; i++) {
+            goals[i] = new ProfiledGoal(companion, SPECS.get(i).factory.apply(companion));
+        }
+    }
+
+    /**
+     * Registers the goals that can run in the companion's current state and removes
+     * the rest. Does nothing if the state key is unchanged. Must not be called while
+     * the companion's goal selectors are ticking.
+     *
+     * @param companion      The companion
+     * @param goalSelector   The companion's behavior goal selector
+     * @param targetSelector The companion's target goal selector
+     */
+    public void apply(CompanionEntity companion, GoalSelector goalSelector, GoalSelector targetSelector) {
+        int key = key(companion);
+        if (key == appliedKey) {
+            return;
+        }
+
+        long mask = COMPILED[key];
+        long changed = mask ^ appliedMask;
+        for (int i = 0; i < goals.length; i++) {
+            if ((changed & (1L << i)) == 0) {
+                continue;
+            }
+            Spec spec = SPECS.get(i);
+            GoalSelector selector = spec.target ? targetSelector : goalSelector;
+            if ((mask & (1L << i)) != 0) {
+                selector.addGoal(spec.priority, goals[i]);
+            } else {
+                selector.removeGoal(goals[i]);
+            }
+        }
+        appliedKey = key;
+        appliedMask = mask;
+    }
+
+    // ========== Compilation ==========
+
+    private static int key(CompanionEntity companion) {
+        int key = companion.getCombatStance().ordinal() << STANCE_SHIFT;
+        if (companion.getMode() == CompanionMode.FOLLOW) {
+            key |= FOLLOW_MODE;
+        }
+        if (companion.getCombatType().isRanged()) {
+            key |= RANGED;
+        }
+        if (companion.isCombatDisabled()) {
+            key |= COMBAT_DISABLED;
+        }
+        if (companion.isCriticallyInjured()) {
+            key |= CRITICALLY_INJURED;
+        }
+        if (!companion.canPerformAction(ActionType.SWIM)) {
+            key |= SWIM_BLOCKED;
+        }
+        if (companion.hasOwner()) {
+            key |= OWNED;
+        }
+        if (companion.isInVillagerTeam()) {
+            key |= VILLAGER_TEAM;
+        }
+        return key;
+    }
+
+    private static long[] compileAll() {
+        long[] masks = new long[KEY_COUNT];
+        for (int key = 0; key < KEY_COUNT; key++) {
+            masks[key] = compile(key);
+        }
+        return masks;
+    }
+
+    private static long compile(int key) {
+        long mask = 0L;
+        for (int i = 0; i < SPECS.size(); i++) {
+            if (SPECS.get(i).applies.test(key)) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    private static CombatStance stance(int key) {
+        return CombatStance.values()[(key & STANCE_MASK) >> STANCE_SHIFT];
+    }
+
+    private static boolean canRetaliate(int key) {
+        return stance(key) != CombatStance.PASSIVE && (key & COMBAT_DISABLED) == 0;
+    }
+
+    private static boolean canAssist(int key) {
+        CombatStance stance = stance(key);
+        return (stance == CombatStance.ASSIST || stance == CombatStance.AGGRESSIVE)
+                && (key & COMBAT_DISABLED) == 0;
+    }
+
+    private static boolean canProactivelyAttack(int key) {
+        return stance(key) == CombatStance.AGGRESSIVE && (key & COMBAT_DISABLED) == 0;
+    }
+
+    private static Spec behavior(int priority, Function<CompanionEntity, Goal> factory, IntPredicate applies) {
+        return new Spec(priority, false, factory, applies);
+    }
+
+    private static Spec target(int priority, Function<CompanionEntity, Goal> factory, IntPredicate applies) {
+        return new Spec(priority, true, factory, applies);
+    }
+
+    /**
+     * One goal: its priority, which selector it belongs to, how to create it, and the
+     * state keys it can run in.
+     */
+    private record Spec(int priority, boolean target, Function<CompanionEntity, Goal> factory,
+                        IntPredicate applies) {
+    }
+}
@@ -1,15 +1,19 @@
 package com.payangar.immersivecompanions.entity.ai;
 
 import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.village.VillageThreatSensor;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.goal.target.NearestAttackableTargetGoal;
-import net.minecraft.world.entity.monster.Creeper;
-import net.minecraft.world.entity.monster.EnderMan;
 import net.minecraft.world.entity.monster.Monster;
 
 /**
  * Wrapper for NearestAttackableTargetGoal that only activates in AGGRESSIVE stance.
  * Proactively targets monsters while filtering out dangerous ones.
+ *
+ * <p>Guards bound to a village read their village's shared {@link VillageThreatSensor}
+ * scan and take the nearest valid monster instead of scanning for monsters themselves.
+ * Other companions keep the vanilla per-goal scan.
  */
 public class CompanionNearestAttackableTargetGoal extends NearestAttackableTargetGoal<Monster> {
 
@@ -29,6 +33,17 @@ public class CompanionNearestAttackableTargetGoal extends NearestAttackableTarge
         return super.canUse();
     }
 
+    @Override
+    protected void findTarget() {
+        // Guards without a village have no scan to share
+        if (companion.getHomeVillage() == null || !(companion.level() instanceof ServerLevel serverLevel)) {
+            super.findTarget();
+            return;
+        }
+        this.target = VillageThreatSensor.get(serverLevel)
+                .findTarget(companion, getFollowDistance(), targetConditions);
+    }
+
     @Override
     public boolean canContinueToUse() {
         if (!companion.canProactivelyAttack()) {
@@ -42,10 +57,6 @@ public class CompanionNearestAttackableTargetGoal extends NearestAttackableTarge
      * Filters out dangerous targets like Creepers and Endermen.
      */
     private static boolean shouldAttackEntity(CompanionEntity companion, LivingEntity entity) {
-        // Don't attack Creepers (explode) or Endermen (teleport, aggro)
-        if (entity instanceof Creeper || entity instanceof EnderMan) {
-            return false;
-        }
-        return entity instanceof Monster;
+        return VillageThreatSensor.isThreat(entity);
     }
 }
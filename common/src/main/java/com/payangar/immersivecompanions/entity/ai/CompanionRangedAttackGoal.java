@@ -1,17 +1,23 @@
 package com.payangar.immersivecompanions.entity.ai;
 
+import com.payangar.immersivecompanions.config.ModConfig;
 import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.metrics.CompanionMetrics;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.AbortableIterationConsumer;
+import net.minecraft.util.Mth;
 import net.minecraft.world.InteractionHand;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.goal.Goal;
 import net.minecraft.world.entity.animal.IronGolem;
 import net.minecraft.world.entity.npc.AbstractVillager;
 import net.minecraft.world.item.CrossbowItem;
+import net.minecraft.world.level.entity.EntityTypeTest;
 import net.minecraft.world.phys.AABB;
-import net.minecraft.world.phys.Vec3;
 
+import javax.annotation.Nullable;
 import java.util.EnumSet;
-import java.util.List;
 
 /**
  * Custom ranged attack goal that includes a charging phase for bow/crossbow animations.
@@ -37,6 +43,20 @@ public class CompanionRangedAttackGoal extends Goal {
     private boolean strafingBackwards = false;
     private int blockedShotTime = 0; // Tracks how long shot has been blocked by friendlies
 
+    /** Arrow hitbox width approximation used as the friendly-fire corridor */
+    private static final double CORRIDOR_WIDTH = 1.0;
+    /** Length of the segment pieces swept for friendlies */
+    private static final double SWEEP_PIECE_LENGTH = 4.0;
+    /** Ticks a clear-shot verdict is reused for the same target */
+    private static final int SHOT_CACHE_TICKS = 4;
+    private static final EntityTypeTest<Entity, LivingEntity> LIVING_ENTITY_TEST = EntityTypeTest.forClass(LivingEntity.class);
+
+    private final ShotPathScan shotPathScan = new ShotPathScan();
+    @Nullable
+    private LivingEntity cachedShotTarget;
+    private long cachedShotTick;
+    private boolean cachedShotClear;
+
     /**
      * Creates a ranged attack goal with default minimum distance (5 blocks).
      */
@@ -120,6 +140,7 @@ public class CompanionRangedAttackGoal extends Goal {
         chargeTime = 0;
         strafeTime = 0;
         blockedShotTime = 0;
+        cachedShotTarget = null;
         if (companion.isSprinting()) {
             companion.stopSprinting();
         }
@@ -250,43 +271,28 @@ public class CompanionRangedAttackGoal extends Goal {
     /**
      * Checks if there's a clear shot to the target without hitting friendly entities.
      * Considers other companions, iron golems, and villagers as friendlies.
+     * Skipped when team-aware projectiles are enabled. The verdict is reused for a few ticks while the target stays the same.
      *
      * @param target The target to shoot at
      * @return true if the shot path is clear of friendlies
      */
     private boolean hasClearShot(LivingEntity target) {
-        Vec3 eyePos = companion.getEyePosition();
-        Vec3 targetPos = target.getEyePosition();
-        Vec3 direction = targetPos.subtract(eyePos);
-        double distance = direction.length();
-
-        if (distance < 0.1) {
-            return true; // Too close to matter
+        // Team-aware arrows pass through every friendly, so there is nothing to avoid
+        if (ModConfig.get().isEnableTeamAwareProjectiles()) {
+            return true;
         }
 
-        // Normalize direction
-        Vec3 dirNorm = direction.normalize();
-
-        // Create a bounding box along the projectile path
-        // We'll check for entities within this corridor
-        double corridorWidth = 1.0; // Arrow hitbox width approximation
-
-        // Get all potential friendly entities in the area between companion and target
-        AABB searchArea = companion.getBoundingBox().expandTowards(direction).inflate(corridorWidth);
-        List<LivingEntity> nearbyEntities = companion.level().getEntitiesOfClass(
-                LivingEntity.class,
-                searchArea,
-                entity -> entity != companion && entity != target && isFriendly(entity)
-        );
-
-        // Check each friendly entity to see if they're in the line of fire
-        for (LivingEntity friendly : nearbyEntities) {
-            if (isInLineOfFire(eyePos, dirNorm, distance, friendly, corridorWidth)) {
-                return false; // Friendly is in the way
-            }
+        long now = companion.level().getGameTime();
+        if (target == cachedShotTarget && now - cachedShotTick < SHOT_CACHE_TICKS) {
+            return cachedShotClear;
         }
 
-        return true;
+        boolean clear = !(companion.level() instanceof ServerLevel serverLevel)
+                || !shotPathScan.isBlocked(serverLevel, target);
+        cachedShotTarget = target;
+        cachedShotTick = now;
+        cachedShotClear = clear;
+        return clear;
     }
 
     /**
@@ -310,35 +316,109 @@ public class CompanionRangedAttackGoal extends Goal {
     }
 
     /**
-     * Checks if an entity is within the projectile's path corridor.
+     * Sweeps the shot segment for friendlies without building one large box around it.
      *
-     * @param origin      The starting point of the projectile
-     * @param direction   The normalized direction vector
-     * @param maxDistance The maximum distance to check
-     * @param entity      The entity to check
-     * @param corridor    The width of the projectile corridor
-     * @return true if the entity is in the line of fire
+     * <p>The segment from the companion's eyes to the target's eyes is split into short
+     * pieces, and only the entity sections around each piece are visited. Each candidate
+     * is tested with a slab test of the segment against its bounding box widened by the
+     * corridor, using plain doubles, and the sweep stops at the first friendly in the way.
+     * The scan object is reused across checks so no per-candidate objects are created.
      */
-    private boolean isInLineOfFire(Vec3 origin, Vec3 direction, double maxDistance,
-                                   LivingEntity entity, double corridor) {
-        Vec3 entityPos = entity.position().add(0, entity.getBbHeight() / 2, 0); // Center of entity
-        Vec3 toEntity = entityPos.subtract(origin);
+    private final class ShotPathScan implements AbortableIterationConsumer<LivingEntity> {
+        private LivingEntity target;
+        private double originX, originY, originZ;
+        private double deltaX, deltaY, deltaZ;
+        private boolean blocked;
+        private double clipMin, clipMax;
+
+        boolean isBlocked(ServerLevel level, LivingEntity target) {
+            this.target = target;
+            this.originX = companion.getX();
+            this.originY = companion.getEyeY();
+            this.originZ = companion.getZ();
+            this.deltaX = target.getX() - originX;
+            this.deltaY = target.getEyeY() - originY;
+            this.deltaZ = target.getZ() - originZ;
+            this.blocked = false;
+
+            double distance = Math.sqrt(deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ);
+            if (distance < 0.1) {
+                this.target = null;
+                return false; // Too close to matter
+            }
 
-        // Project entity position onto the line of fire
-        double projectionLength = toEntity.dot(direction);
+            int pieces = Mth.ceil(distance / SWEEP_PIECE_LENGTH);
+            for (int piece = 0; piece < pieces && !blocked; piece++) {
+                double t0 = (double) piece / pieces;
+                double t1 = (double) (piece + 1) / pieces;
+                AABB pieceBox = new AABB(
+                        originX + deltaX * t0, originY + deltaY * t0, originZ + deltaZ * t0,
+                        originX + deltaX * t1, originY + deltaY * t1, originZ + deltaZ * t1)
+                        .inflate(CORRIDOR_WIDTH);
+                CompanionMetrics.Counter.ENTITY_SCANS.increment();
+                level.getEntities().get(LIVING_ENTITY_TEST, pieceBox, this);
+            }
 
-        // Entity must be between us and the target
-        if (projectionLength < 0 || projectionLength > maxDistance) {
-            return false;
+            this.target = null;
+            return blocked;
+        }
+
+        @Override
+        public Continuation accept(LivingEntity entity) {
+            if (entity == companion || entity == target || !isFriendly(entity)) {
+                return Continuation.CONTINUE;
+            }
+
+            // Entities behind the shooter can't be hit, even if their box reaches the eyes
+            double centerX = entity.getX() - originX;
+            double centerY = entity.getY(0.5) - originY;
+            double centerZ = entity.getZ() - originZ;
+            if (centerX * deltaX + centerY * deltaY + centerZ * deltaZ < 0) {
+                return Continuation.CONTINUE;
+            }
+
+            AABB box = entity.getBoundingBox();
+            if (segmentIntersects(
+                    box.minX - CORRIDOR_WIDTH, box.minY - CORRIDOR_WIDTH, box.minZ - CORRIDOR_WIDTH,
+                    box.maxX + CORRIDOR_WIDTH, box.maxY + CORRIDOR_WIDTH, box.maxZ + CORRIDOR_WIDTH)) {
+                blocked = true;
+                return Continuation.ABORT;
+            }
+            return Continuation.CONTINUE;
         }
 
-        // Calculate perpendicular distance from the line
-        Vec3 projectionPoint = origin.add(direction.scale(projectionLength));
-        double perpendicularDist = entityPos.distanceTo(projectionPoint);
+        /**
+         * Slab test of the shot segment against an axis-aligned box.
+         */
+        private boolean segmentIntersects(double minX, double minY, double minZ,
+                                          double maxX, double maxY, double maxZ) {
+            clipMin = 0.0;
+            clipMax = 1.0;
+            return clipAxis(originX, deltaX, minX, maxX)
+                    && clipAxis(originY, deltaY, minY, maxY)
+                    && clipAxis(originZ, deltaZ, minZ, maxZ);
+        }
 
-        // Check if within corridor (accounting for entity size)
-        double entityRadius = Math.max(entity.getBbWidth(), entity.getBbHeight()) / 2;
-        return perpendicularDist < (corridor + entityRadius);
+        /**
+         * Narrows the segment's parameter range to where it lies within one axis slab.
+         *
+         * @return false if the segment misses the slab within the current range
+         */
+        private boolean clipAxis(double origin, double delta, double min, double max) {
+            if (Math.abs(delta) < 1.0E-7) {
+                return origin >= min && origin <= max;
+            }
+            double near = (min - origin) / delta;
+            double far = (max - origin) / delta;
+            if (near > far) {
+                double swap = near;
+                near = far;
+                far = swap;
+            }
+            clipMin = Math.max(clipMin, near);
+            clipMax = Math.min(clipMax, far);
+            return clipMin <= clipMax;
+        }
     }
 
     /**
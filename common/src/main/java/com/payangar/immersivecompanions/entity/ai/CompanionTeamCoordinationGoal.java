@@ -2,33 +2,42 @@ package com.payangar.immersivecompanions.entity.ai;
 
 import com.payangar.immersivecompanions.config.ModConfig;
 import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.entity.schedule.CompanionScheduler;
+import com.payangar.immersivecompanions.entity.schedule.ScheduledCheck;
+import com.payangar.immersivecompanions.entity.team.EngagementPlanner;
+import com.payangar.immersivecompanions.entity.team.TeamBlackboard;
+import it.unimi.dsi.fastutil.objects.Reference2BooleanMap;
+import it.unimi.dsi.fastutil.objects.Reference2BooleanOpenHashMap;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.goal.target.TargetGoal;
 import net.minecraft.world.entity.ai.targeting.TargetingConditions;
-import net.minecraft.world.phys.AABB;
 
 import javax.annotation.Nullable;
-import java.util.List;
 
 /**
  * AI goal that makes companions coordinate with teammates:
  * - Defend: Attack entities that are hurting same-team companions
  * - Assist: Help same-team companions that are attacking something
  *
- * Defend takes precedence over assist.
+ * Threats attacking teammates are preferred over threats teammates are engaging.
+ * Targets are handed out by the team's {@link EngagementPlanner}, which caps how many
+ * teammates engage each threat so a team spreads across a raid instead of converging
+ * on one mob.
  * Only active in ASSIST or AGGRESSIVE stances.
  */
 public class CompanionTeamCoordinationGoal extends TargetGoal {
 
-    private static final int CHECK_INTERVAL = 20; // Check every second
     private static final int RECENT_HURT_THRESHOLD = 100; // 5 seconds
 
     private final CompanionEntity companion;
     private final TargetingConditions targetConditions;
+    private final Reference2BooleanMap<LivingEntity> threats = new Reference2BooleanOpenHashMap<>();
 
     @Nullable
     private LivingEntity coordinationTarget;
-    private int checkTimer;
+    private final ScheduledCheck check = new ScheduledCheck(CompanionScheduler.Check.TEAM_COORDINATION);
+    private long lastRevision;
 
     public CompanionTeamCoordinationGoal(CompanionEntity companion) {
         super(companion, false, false);
@@ -48,19 +57,27 @@ public class CompanionTeamCoordinationGoal extends TargetGoal {
             return false;
         }
 
-        if (--checkTimer > 0) {
+        if (!(companion.level() instanceof ServerLevel serverLevel)) {
             return false;
         }
-        checkTimer = CHECK_INTERVAL;
 
-        // Try defend first (higher priority)
-        coordinationTarget = findDefendTarget();
-        if (coordinationTarget != null) {
+        // React as soon as a teammate in range publishes something, otherwise re-check periodically
+        TeamBlackboard blackboard = TeamBlackboard.get(serverLevel);
+        long revision = blackboard.getRevision(companion, ModConfig.get().getTeamCoordinationRange());
+        if (!check.tryRun(companion, revision != lastRevision)) {
+            return false;
+        }
+        lastRevision = revision;
+
+        // Keep the current assignment until its target dies
+        EngagementPlanner planner = EngagementPlanner.get(serverLevel);
+        LivingEntity assigned = planner.getAssignment(companion);
+        if (assigned != null && isValidTarget(assigned) && isInRange(assigned)) {
+            coordinationTarget = assigned;
             return true;
         }
 
-        // Try assist if no defend target
-        coordinationTarget = findAssistTarget();
+        coordinationTarget = findAssignedTarget(blackboard, planner);
         return coordinationTarget != null;
     }
 
@@ -82,118 +99,63 @@ public class CompanionTeamCoordinationGoal extends TargetGoal {
             return false;
         }
 
-        double range = ModConfig.get().getTeamCoordinationRange();
-        return companion.distanceToSqr(target) < range * range;
+        return isInRange(target);
     }
 
     @Override
     public void stop() {
+        if (companion.level() instanceof ServerLevel serverLevel) {
+            EngagementPlanner.get(serverLevel).release(companion);
+        }
         coordinationTarget = null;
         companion.setTarget(null);
         super.stop();
     }
 
     /**
-     * Finds an entity that is attacking a same-team companion.
-     * @return The attacker to target, or null if none found
+     * Collects the threats published to the team blackboard and asks the engagement
+     * planner to assign this companion to one of them.
+     * @return The assigned target, or null if there is no threat with room left
      */
     @Nullable
-    private LivingEntity findDefendTarget() {
+    private LivingEntity findAssignedTarget(TeamBlackboard blackboard, EngagementPlanner planner) {
         double range = ModConfig.get().getTeamCoordinationRange();
-        AABB searchBox = companion.getBoundingBox().inflate(range);
-        List<CompanionEntity> teammates = companion.level().getEntitiesOfClass(
-                CompanionEntity.class, searchBox,
-                this::isValidTeammate
-        );
-
-        for (CompanionEntity teammate : teammates) {
-            LivingEntity attacker = teammate.getLastHurtByMob();
-            if (attacker == null || !attacker.isAlive()) {
-                continue;
-            }
-
-            // Check if the attack was recent
-            int timeSinceHurt = teammate.tickCount - teammate.getLastHurtByMobTimestamp();
-            if (timeSinceHurt > RECENT_HURT_THRESHOLD) {
-                continue;
-            }
-
-            // Don't target same-team companions
-            if (companion.isOnSameTeam(attacker)) {
-                continue;
-            }
-
-            // Don't target owner
-            if (attacker.equals(companion.getOwner())) {
-                continue;
-            }
-
-            // Verify we can actually target this entity
-            if (!targetConditions.test(companion, attacker)) {
-                continue;
-            }
-
-            return attacker;
+        threats.clear();
+        blackboard.collectThreats(companion, range, RECENT_HURT_THRESHOLD, this::isValidTarget, threats);
+        if (threats.isEmpty()) {
+            planner.release(companion);
+            return null;
         }
+        LivingEntity target = planner.assign(companion, threats);
+        threats.clear();
+        return target;
+    }
 
-        return null;
+    private boolean isInRange(LivingEntity target) {
+        double range = ModConfig.get().getTeamCoordinationRange();
+        return companion.distanceToSqr(target) < range * range;
     }
 
     /**
-     * Finds the target of a same-team companion to assist.
-     * @return The target to assist against, or null if none found
+     * Checks if a teammate's attacker or target can be coordinated against.
      */
-    @Nullable
-    private LivingEntity findAssistTarget() {
-        double range = ModConfig.get().getTeamCoordinationRange();
-        AABB searchBox = companion.getBoundingBox().inflate(range);
-        List<CompanionEntity> teammates = companion.level().getEntitiesOfClass(
-                CompanionEntity.class, searchBox,
-                this::isValidTeammate
-        );
-
-        for (CompanionEntity teammate : teammates) {
-            LivingEntity target = teammate.getTarget();
-            if (target == null || !target.isAlive()) {
-                continue;
-            }
-
-            // Don't target same-team companions
-            if (companion.isOnSameTeam(target)) {
-                continue;
-            }
-
-            // Don't target owner
-            if (target.equals(companion.getOwner())) {
-                continue;
-            }
-
-            // Loop prevention: don't assist someone targeting us
-            if (target == companion) {
-                continue;
-            }
-
-            // Verify we can actually target this entity
-            if (!targetConditions.test(companion, target)) {
-                continue;
-            }
-
-            return target;
+    private boolean isValidTarget(LivingEntity target) {
+        // Don't target same-team companions
+        if (companion.isOnSameTeam(target)) {
+            return false;
         }
 
-        return null;
-    }
+        // Don't target owner
+        if (target.equals(companion.getOwner())) {
+            return false;
+        }
 
-    /**
-     * Checks if an entity is a valid teammate for coordination.
-     */
-    private boolean isValidTeammate(CompanionEntity other) {
-        // Must be a different companion
-        if (other == companion) {
+        // Loop prevention: don't assist someone targeting us
+        if (target == companion) {
             return false;
         }
 
-        // Must be on the same team
-        return companion.isOnSameTeam(other);
+        // Verify we can actually target this entity
+        return targetConditions.test(companion, target);
     }
 }
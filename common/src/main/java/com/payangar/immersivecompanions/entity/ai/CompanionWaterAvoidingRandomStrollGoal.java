@@ -40,6 +40,11 @@ public class CompanionWaterAvoidingRandomStrollGoal extends RandomStrollGoal {
         if (companion.getMode() != CompanionMode.WANDER) {
             return false;
         }
+        // Wander less often when no player is close enough to notice
+        if (companion.getAiLod() == AiLod.REDUCED
+                && this.mob.getRandom().nextInt(AiLod.REDUCED_RATE_DIVISOR) != 0) {
+            return false;
+        }
         return super.canUse();
     }
 
@@ -3,7 +3,7 @@ package com.payangar.immersivecompanions.entity.ai;
 import com.payangar.immersivecompanions.entity.CompanionEntity;
 import com.payangar.immersivecompanions.entity.condition.ActionType;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.Level;
+import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
 
@@ -52,7 +52,21 @@ public class GapJumpHelper {
      * @return Information about the detected gap, or GapInfo.NONE if no gap
      */
     public static GapInfo detectGapAhead(CompanionEntity companion) {
-        Vec3 velocity = companion.getDeltaMovement();
+        return detectGapAhead(companion.level(), companion.position(), companion.getDeltaMovement(),
+                companion.getMaxFallDistance());
+    }
+
+    /**
+     * Detects if there's a gap ahead of a position in the direction of movement.
+     * Only checks when moving fast enough (sprinting).
+     *
+     * @param level           The blocks to check
+     * @param pos             The position of the mover
+     * @param velocity        The mover's velocity
+     * @param maxFallDistance Maximum blocks the mover can safely fall
+     * @return Information about the detected gap, or GapInfo.NONE if no gap
+     */
+    public static GapInfo detectGapAhead(BlockGetter level, Vec3 pos, Vec3 velocity, int maxFallDistance) {
         double horizontalSpeed = Math.sqrt(velocity.x * velocity.x + velocity.z * velocity.z);
 
         // Don't check if not moving fast enough
@@ -64,9 +78,6 @@ public class GapJumpHelper {
         double dirX = velocity.x / horizontalSpeed;
         double dirZ = velocity.z / horizontalSpeed;
 
-        Level level = companion.level();
-        Vec3 pos = companion.position();
-
         // Check position ahead for gap start
         double checkX = pos.x + dirX * GAP_DETECTION_DISTANCE;
         double checkZ = pos.z + dirZ * GAP_DETECTION_DISTANCE;
@@ -78,7 +89,6 @@ public class GapJumpHelper {
         }
 
         // Found a gap start - now scan forward to find landing surface
-        int maxFallDistance = companion.getMaxFallDistance();
         BlockPos startPos = BlockPos.containing(pos.x, pos.y, pos.z);
 
         for (int distance = 1; distance <= MAX_JUMP_DISTANCE; distance++) {
@@ -93,7 +103,7 @@ public class GapJumpHelper {
                 boolean isSafe = heightDiff <= maxFallDistance;
 
                 // Check ceiling clearance for the jump
-                if (!hasCeilingClearance(level, companion, startPos)) {
+                if (!hasCeilingClearance(level, startPos)) {
                     return GapInfo.NONE;
                 }
 
@@ -109,7 +119,7 @@ public class GapJumpHelper {
      * Checks if the given position is the start of a gap.
      * A gap start is air at feet level with no solid ground directly below (within 1-2 blocks).
      */
-    private static boolean isGapStart(Level level, BlockPos pos) {
+    private static boolean isGapStart(BlockGetter level, BlockPos pos) {
         // Check if air at feet level
         if (!level.getBlockState(pos).isAir()) {
             return false;
@@ -137,7 +147,7 @@ public class GapJumpHelper {
      * @param maxFallDistance Maximum blocks the companion can safely fall
      * @return The landing position, or null if no safe landing found
      */
-    private static BlockPos findLandingSurface(Level level, BlockPos startPos, int maxFallDistance) {
+    private static BlockPos findLandingSurface(BlockGetter level, BlockPos startPos, int maxFallDistance) {
         // First check at same level - if there's solid ground with air above, it's a valid landing
         if (isValidLandingSpot(level, startPos)) {
             return startPos;
@@ -158,7 +168,7 @@ public class GapJumpHelper {
      * Checks if a position is a valid landing spot.
      * Requires solid ground below and air (or passable blocks) at feet and head level.
      */
-    private static boolean isValidLandingSpot(Level level, BlockPos pos) {
+    private static boolean isValidLandingSpot(BlockGetter level, BlockPos pos) {
         BlockState groundState = level.getBlockState(pos.below());
         BlockState feetState = level.getBlockState(pos);
         BlockState headState = level.getBlockState(pos.above());
@@ -191,7 +201,7 @@ public class GapJumpHelper {
     /**
      * Checks if there's enough ceiling clearance for a jump.
      */
-    private static boolean hasCeilingClearance(Level level, CompanionEntity companion, BlockPos startPos) {
+    private static boolean hasCeilingClearance(BlockGetter level, BlockPos startPos) {
         // Check ~2 blocks above for ceiling
         BlockPos aboveHead = startPos.above(2);
         BlockState aboveState = level.getBlockState(aboveHead);
@@ -242,7 +252,18 @@ public class GapJumpHelper {
      * @return true if within trigger distance of a gap
      */
     public static boolean isNearGapEdge(CompanionEntity companion) {
-        Vec3 velocity = companion.getDeltaMovement();
+        return isNearGapEdge(companion.level(), companion.position(), companion.getDeltaMovement());
+    }
+
+    /**
+     * Checks if a position is close enough to a gap edge ahead to trigger a jump.
+     *
+     * @param level    The blocks to check
+     * @param pos      The position of the mover
+     * @param velocity The mover's velocity
+     * @return true if within trigger distance of a gap
+     */
+    public static boolean isNearGapEdge(BlockGetter level, Vec3 pos, Vec3 velocity) {
         double horizontalSpeed = Math.sqrt(velocity.x * velocity.x + velocity.z * velocity.z);
 
         if (horizontalSpeed < MIN_MOVEMENT_SPEED) {
@@ -253,9 +274,6 @@ public class GapJumpHelper {
         double dirX = velocity.x / horizontalSpeed;
         double dirZ = velocity.z / horizontalSpeed;
 
-        Level level = companion.level();
-        Vec3 pos = companion.position();
-
         // Check at trigger distance
         double checkX = pos.x + dirX * JUMP_TRIGGER_DISTANCE;
         double checkZ = pos.z + dirZ * JUMP_TRIGGER_DISTANCE;
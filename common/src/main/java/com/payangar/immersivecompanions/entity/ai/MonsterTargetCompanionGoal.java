@@ -0,0 +1,101 @@
+package com.payangar.immersivecompanions.entity.ai;
+
+import com.payangar.immersivecompanions.config.ModConfig;
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.entity.index.CompanionIndex;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.ai.goal.Goal;
+import net.minecraft.world.entity.ai.goal.target.TargetGoal;
+import net.minecraft.world.entity.ai.targeting.TargetingConditions;
+import net.minecraft.world.entity.monster.Creeper;
+import net.minecraft.world.entity.monster.EnderMan;
+import net.minecraft.world.entity.monster.Monster;
+import net.minecraft.world.phys.AABB;
+
+import javax.annotation.Nullable;
+import java.util.EnumSet;
+
+/**
+ * Target goal injected into monsters so they attack companions on sight.
+ *
+ * <p>Replaces a {@code NearestAttackableTargetGoal<CompanionEntity>} on every monster.
+ * Before searching, the goal checks the level's {@link CompanionIndex} for a companion
+ * in any cell around the monster, so monsters far from companions never run an
+ * entity query. Near companions it picks the nearest valid one from the index.
+ */
+public class MonsterTargetCompanionGoal extends TargetGoal {
+
+    /** Target selector priority, below the monster's own player targeting */
+    public static final int PRIORITY = 3;
+    /** Average ticks between searches, same as the vanilla nearest-target goal */
+    private static final int RANDOM_INTERVAL = 10;
+    /** Vertical search range, same as the vanilla nearest-target goal */
+    private static final double VERTICAL_RANGE = 4.0;
+
+    private final TargetingConditions targetConditions;
+
+    @Nullable
+    private CompanionEntity target;
+
+    public MonsterTargetCompanionGoal(Mob mob) {
+        super(mob, true);
+        this.targetConditions = TargetingConditions.forCombat().range(this.getFollowDistance());
+        this.setFlags(EnumSet.of(Goal.Flag.TARGET));
+    }
+
+    /**
+     * Checks if a loaded entity should get this goal.
+     * Creepers and Endermen are excluded, and injection can be turned off in config.
+     *
+     * @param entity The entity that joined the level
+     * @return true if the entity is a monster that should target companions
+     */
+    public static boolean shouldInject(Entity entity) {
+        return ModConfig.get().isEnableMonstersTargetCompanions()
+                && entity instanceof Monster
+                && !(entity instanceof Creeper)
+                && !(entity instanceof EnderMan);
+    }
+
+    @Override
+    public boolean canUse() {
+        if (this.mob.getRandom().nextInt(reducedTickDelay(RANDOM_INTERVAL)) != 0) {
+            return false;
+        }
+        if (!(this.mob.level() instanceof ServerLevel serverLevel)) {
+            return false;
+        }
+
+        double range = this.getFollowDistance();
+        AABB searchBox = this.mob.getBoundingBox().inflate(range, VERTICAL_RANGE, range);
+        CompanionIndex index = CompanionIndex.get(serverLevel);
+        if (!index.hasCompanionsNear(searchBox)) {
+            return false; // No companion in any nearby cell
+        }
+
+        this.target = null;
+        double bestDistanceSq = Double.MAX_VALUE;
+        for (CompanionEntity companion : index.getCompanions(searchBox, companion -> true)) {
+            double distanceSq = this.mob.distanceToSqr(companion);
+            if (distanceSq < bestDistanceSq && targetConditions.test(this.mob, companion)) {
+                this.target = companion;
+                bestDistanceSq = distanceSq;
+            }
+        }
+        return this.target != null;
+    }
+
+    @Override
+    public void start() {
+        this.mob.setTarget(this.target);
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        this.target = null;
+        super.stop();
+    }
+}
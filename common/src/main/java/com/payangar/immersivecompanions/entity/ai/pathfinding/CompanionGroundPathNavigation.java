@@ -1,10 +1,17 @@
 package com.payangar.immersivecompanions.entity.ai.pathfinding;
 
+import com.payangar.immersivecompanions.metrics.CompanionMetrics;
+import com.payangar.immersivecompanions.profiling.CompanionProfiler;
+import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.navigation.GroundPathNavigation;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.pathfinder.Path;
 import net.minecraft.world.level.pathfinder.PathFinder;
 
+import javax.annotation.Nullable;
+import java.util.Set;
+
 /**
  * Custom ground navigation that uses CompanionWalkNodeEvaluator.
  * This enables condition-aware pathfinding where jump restrictions
@@ -22,4 +29,25 @@ public class CompanionGroundPathNavigation extends GroundPathNavigation {
         this.nodeEvaluator.setCanPassDoors(true);
         return new PathFinder(this.nodeEvaluator, maxVisitedNodes);
     }
+
+    /**
+     * Times path requests for the {@link CompanionProfiler} and counts them in the
+     * {@link CompanionMetrics}.
+     */
+    @Override
+    @Nullable
+    protected Path createPath(Set<BlockPos> targets, int regionOffset, boolean offsetUpward,
+                              int accuracy, float followRange) {
+        CompanionMetrics.Counter.PATHS_REQUESTED.increment();
+        long profileStart = CompanionProfiler.start(this.mob);
+        try {
+            Path path = super.createPath(targets, regionOffset, offsetUpward, accuracy, followRange);
+            if (path == null) {
+                CompanionMetrics.Counter.PATHS_FAILED.increment();
+            }
+            return path;
+        } finally {
+            CompanionProfiler.stop(this.mob, CompanionProfiler.PATHFINDING, profileStart);
+        }
+    }
 }
@@ -1,5 +1,8 @@
 package com.payangar.immersivecompanions.entity.condition;
 
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -10,11 +13,23 @@ import java.util.Map;
  *
  * <p>Conditions are registered at class load time and can be looked up by ID.
  * This provides a central place to define and access all conditions.
+ *
+ * <p>Each condition also gets an ordinal in registration order, which companions
+ * use to store their active conditions as a compact array and bitmask.
  */
 public class CompanionConditions {
 
+    /** Maximum number of conditions, bounded by the width of the companion condition bitmask */
+    public static final int MAX_CONDITIONS = Long.SIZE;
+
     private static final Map<String, CompanionCondition> REGISTRY = new LinkedHashMap<>();
 
+    private static final Reference2IntMap<CompanionCondition> ORDINALS = new Reference2IntOpenHashMap<>();
+
+    static {
+        ORDINALS.defaultReturnValue(-1);
+    }
+
     // ========== Registered Conditions ==========
 
     /** Critical injury condition - applied when health drops below threshold */
@@ -34,7 +49,11 @@ public class CompanionConditions {
      * @return The registered condition (for static field assignment)
      */
     private static CompanionCondition register(CompanionCondition condition) {
+        if (ORDINALS.size() >= MAX_CONDITIONS) {
+            throw new IllegalStateException("Too many companion conditions, at most " + MAX_CONDITIONS + " are supported");
+        }
         REGISTRY.put(condition.getId(), condition);
+        ORDINALS.put(condition, ORDINALS.size());
         return condition;
     }
 
@@ -57,4 +76,60 @@ public class CompanionConditions {
     public static Collection<CompanionCondition> all() {
         return REGISTRY.values();
     }
+
+    /**
+     * Gets the ordinal of a registered condition.
+     *
+     * @param condition The condition
+     * @return The condition's ordinal, or -1 if it is not registered
+     */
+    public static int ordinal(CompanionCondition condition) {
+        return ORDINALS.getInt(condition);
+    }
+
+    /**
+     * Gets the number of registered conditions.
+     *
+     * @return The condition count, one past the highest ordinal
+     */
+    public static int count() {
+        return ORDINALS.size();
+    }
+
+    // ========== Derived Flags ==========
+
+    /**
+     * Computes the mask of actions blocked by a set of conditions, with one bit per
+     * {@link ActionType} ordinal.
+     *
+     * @param conditions The active conditions, indexed by ordinal; null entries are skipped
+     * @return The blocked-action mask
+     */
+    public static int blockedActionMask(CompanionCondition[] conditions) {
+        int blocked = 0;
+        for (CompanionCondition condition : conditions) {
+            if (condition == null) {
+                continue;
+            }
+            for (ActionType action : condition.getBlockedActions()) {
+                blocked |= 1 << action.ordinal();
+            }
+        }
+        return blocked;
+    }
+
+    /**
+     * Checks if any of a set of conditions disables combat.
+     *
+     * @param conditions The active conditions, indexed by ordinal; null entries are skipped
+     * @return true if combat is disabled
+     */
+    public static boolean disablesCombat(CompanionCondition[] conditions) {
+        for (CompanionCondition condition : conditions) {
+            if (condition != null && condition.disablesCombat()) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
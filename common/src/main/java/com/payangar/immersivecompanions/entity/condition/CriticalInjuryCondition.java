@@ -2,6 +2,7 @@ package com.payangar.immersivecompanions.entity.condition;
 
 import com.payangar.immersivecompanions.config.ModConfig;
 import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.metrics.CompanionMetrics;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.LivingEntity;
@@ -130,6 +131,7 @@ public class CriticalInjuryCondition implements CompanionCondition {
         // Broadcast to nearby players
         if (entity.level() instanceof ServerLevel serverLevel) {
             AABB searchBox = entity.getBoundingBox().inflate(INJURY_MESSAGE_RADIUS);
+            CompanionMetrics.Counter.ENTITY_SCANS.increment();
             for (Player nearbyPlayer : serverLevel.getEntitiesOfClass(Player.class, searchBox)) {
                 nearbyPlayer.sendSystemMessage(message);
             }
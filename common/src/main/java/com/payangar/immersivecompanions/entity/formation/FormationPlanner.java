@@ -0,0 +1,268 @@
+package com.payangar.immersivecompanions.entity.formation;
+
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.entity.index.CompanionIndex;
+import com.payangar.immersivecompanions.entity.mode.CompanionMode;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Assigns formation slots to the companions following each owner, one instance per level.
+ *
+ * <p>Instead of every follower rescanning its party and testing candidate angles against
+ * every other follower, the planner replans a whole party at once and each follower just
+ * reads its slot. Slots are laid out on concentric rings around the owner, spaced
+ * {@link #MIN_COMPANION_SPACING} apart radially, with each ring holding only as many
+ * slots as fit at that chord length, so any two slots are at least that far apart.
+ *
+ * <p>Slot indices are stored on the companion (and saved to NBT), so a companion keeps
+ * its place in the formation across replans and restarts. A replan only moves companions
+ * whose slot is missing, duplicated or beyond the party size.
+ *
+ * <p>Parties hold their members, so they are dropped when the owner logs out or changes
+ * level ({@link #removeOwner}), and parties nobody has asked about for
+ * {@link #STALE_TICKS} are pruned whenever a new one is created.
+ */
+public class FormationPlanner {
+
+    private static final Map<ResourceKey<Level>, FormationPlanner> PLANNERS = new HashMap<>();
+
+    /** Minimum blocks between companions */
+    public static final double MIN_COMPANION_SPACING = 1.5;
+    /** Distance from owner of the innermost ring */
+    public static final double FORMATION_RADIUS = 2.5;
+    /** Ticks between periodic replans of a party */
+    private static final int REPLAN_INTERVAL = 20;
+    /** Ticks after which an unused party is dropped (1 minute) */
+    private static final int STALE_TICKS = 1200;
+    /** Fraction of a ring used as the step between consecutive slots, close to the golden ratio */
+    private static final double RING_STEP_FRACTION = 0.382;
+
+    /** Slot offsets from the owner, as x/z pairs indexed by slot; grown on demand */
+    private static double[] slotOffsets = new double[0];
+
+    private final Map<UUID, Party> parties = new HashMap<>();
+
+    /**
+     * Gets the formation planner for a level, creating it if needed.
+     *
+     * @param level The server level
+     * @return The level's formation planner
+     */
+    public static FormationPlanner get(ServerLevel level) {
+        return PLANNERS.computeIfAbsent(level.dimension(), key -> new FormationPlanner());
+    }
+
+    /**
+     * Clears all planners. Call on server stop.
+     */
+    public static void clearAll() {
+        PLANNERS.clear();
+    }
+
+    /**
+     * Drops an owner's party from every level. Call when the owner logs out or changes
+     * level, so the planner stops holding on to the party's companions.
+     *
+     * @param ownerId The owner's UUID
+     */
+    public static void removeOwner(UUID ownerId) {
+        for (FormationPlanner planner : PLANNERS.values()) {
+            planner.parties.remove(ownerId);
+        }
+    }
+
+    // ========== Queries ==========
+
+    /**
+     * Gets the position a following companion should move to.
+     * Replans the owner's party first if it is stale or the companion is new to it.
+     *
+     * @param companion The following companion
+     * @param owner     The companion's owner
+     * @return The companion's formation position, or the owner's position if it follows alone
+     */
+    public Vec3 getTargetPosition(CompanionEntity companion, Player owner) {
+        Party party = getPlannedParty(companion, owner);
+        if (party.size <= 1) {
+            return owner.position();
+        }
+        return getSlotPosition(companion.getFormationSlot(), owner);
+    }
+
+    /**
+     * Gets the position of a companion's slot, even if it currently follows alone.
+     * Used as the search center when teleporting to the owner.
+     *
+     * @param companion The following companion
+     * @param owner     The companion's owner
+     * @return The companion's slot position
+     */
+    public Vec3 getSlotPosition(CompanionEntity companion, Player owner) {
+        getPlannedParty(companion, owner);
+        return getSlotPosition(companion.getFormationSlot(), owner);
+    }
+
+    private Party getPlannedParty(CompanionEntity companion, Player owner) {
+        long now = companion.level().getGameTime();
+        Party party = parties.get(owner.getUUID());
+        if (party == null) {
+            pruneStale(now);
+            party = new Party();
+            parties.put(owner.getUUID(), party);
+        }
+        if (now - party.plannedTick >= REPLAN_INTERVAL || !party.members.contains(companion)) {
+            replan(party, companion, owner, now);
+        }
+        return party;
+    }
+
+    private void pruneStale(long now) {
+        parties.values().removeIf(party -> now - party.plannedTick >= STALE_TICKS);
+    }
+
+    // ========== Planning ==========
+
+    /**
+     * Reassigns slots for every companion following the owner.
+     * Companions keep their slot when it is unique and within the party size;
+     * the rest take the lowest free slots.
+     */
+    private void replan(Party party, CompanionEntity requester, Player owner, long now) {
+        List<CompanionEntity> followers = new ArrayList<>();
+        if (requester.level() instanceof ServerLevel serverLevel) {
+            for (CompanionEntity other : CompanionIndex.get(serverLevel).getOwnedCompanions(owner.getUUID())) {
+                if (!other.isRemoved() && other.isAlive() && other.getMode() == CompanionMode.FOLLOW) {
+                    followers.add(other);
+                }
+            }
+        }
+        if (!followers.contains(requester)) {
+            followers.add(requester);
+        }
+
+        int size = followers.size();
+        boolean[] taken = new boolean[size];
+        List<CompanionEntity> unassigned = new ArrayList<>();
+        for (CompanionEntity follower : followers) {
+            int slot = follower.getFormationSlot();
+            if (slot >= 0 && slot < size && !taken[slot]) {
+                taken[slot] = true;
+            } else {
+                unassigned.add(follower);
+            }
+        }
+
+        int nextFree = 0;
+        for (CompanionEntity follower : unassigned) {
+            while (taken[nextFree]) {
+                nextFree++;
+            }
+            taken[nextFree] = true;
+            follower.setFormationSlot(nextFree);
+        }
+
+        party.members.clear();
+        party.members.addAll(followers);
+        party.size = size;
+        party.plannedTick = now;
+    }
+
+    // ========== Slot Layout ==========
+
+    private static Vec3 getSlotPosition(int slot, Player owner) {
+        int index = Math.max(slot, 0);
+        ensureSlotOffsets(index + 1);
+        return owner.position().add(slotOffsets[index * 2], 0.0, slotOffsets[index * 2 + 1]);
+    }
+
+    /**
+     * Gets the offset of a slot from the owner's position.
+     *
+     * @param slot The slot index; negative slots are treated as slot 0
+     * @return The horizontal offset of the slot
+     */
+    public static Vec3 getSlotOffset(int slot) {
+        int index = Math.max(slot, 0);
+        ensureSlotOffsets(index + 1);
+        return new Vec3(slotOffsets[index * 2], 0.0, slotOffsets[index * 2 + 1]);
+    }
+
+    /**
+     * Makes sure offsets exist for at least the given number of slots.
+     * Rings are filled from the inside out. A ring holds as many evenly spaced slots as
+     * keep neighbours at least {@link #MIN_COMPANION_SPACING} apart along the chord
+     * ({@code 2r·sin(π/n) >= spacing}); within a ring, consecutive slots step
+     * roughly a golden-ratio fraction of the ring, so small parties spread around the
+     * owner instead of bunching on one side.
+     */
+    private static void ensureSlotOffsets(int slotCount) {
+        int known = slotOffsets.length / 2;
+        if (slotCount <= known) {
+            return;
+        }
+
+        double[] offsets = Arrays.copyOf(slotOffsets, Math.max(slotCount, known * 2) * 2);
+        int slot = 0;
+        for (int ring = 0; slot < offsets.length / 2; ring++) {
+            double radius = FORMATION_RADIUS + ring * MIN_COMPANION_SPACING;
+            int capacity = Math.max(1, Mth.floor(Math.PI / Math.asin(MIN_COMPANION_SPACING / (2 * radius))));
+            int step = ringStep(capacity);
+            // Stagger alternate rings by half a position so companions don't line up radially
+            double phase = (ring % 2) * 0.5;
+
+            for (int i = 0; i < capacity && slot < offsets.length / 2; i++, slot++) {
+                if (slot < known) {
+                    continue;
+                }
+                double angle = 2 * Math.PI * (((long) i * step) % capacity + phase) / capacity;
+                offsets[slot * 2] = Math.cos(angle) * radius;
+                offsets[slot * 2 + 1] = Math.sin(angle) * radius;
+            }
+        }
+        slotOffsets = offsets;
+    }
+
+    /**
+     * Picks the step between consecutive slots on a ring: close to the golden-ratio
+     * fraction of the capacity and coprime with it, so every position is visited once.
+     */
+    private static int ringStep(int capacity) {
+        int step = Math.max(1, (int) Math.round(capacity * RING_STEP_FRACTION));
+        while (gcd(step, capacity) != 1) {
+            step++;
+        }
+        return step;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Planning state for one owner's party.
+     */
+    private static final class Party {
+        private final Set<CompanionEntity> members = new ReferenceOpenHashSet<>();
+        private int size;
+        private long plannedTick = Long.MIN_VALUE / 2;
+    }
+}
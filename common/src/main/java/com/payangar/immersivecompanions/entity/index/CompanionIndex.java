@@ -0,0 +1,561 @@
+package com.payangar.immersivecompanions.entity.index;
+
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.entity.combat.CombatStance;
+import com.payangar.immersivecompanions.entity.mode.CompanionMode;
+import com.payangar.immersivecompanions.entity.team.CompanionTeams;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Server-side spatial index of loaded companions, one instance per level.
+ *
+ * <p>Companions are bucketed into chunk-column cells, both globally and per team,
+ * and grouped by owner. Range queries only visit the cells overlapping the search
+ * box instead of walking every entity section like {@code getEntitiesOfClass}.
+ *
+ * <p>Counts per chunk, region, team, owner and mode/stance are maintained alongside
+ * the buckets, so population queries never iterate companions. Village companions
+ * (unowned and in the villager team) are also counted per region and level on their
+ * own, since those are the companions village spawning is capped by.
+ *
+ * <p>The index is kept current by the platform entity load/unload events and by
+ * {@link CompanionEntity#tick()}, which reports movement, team, owner, mode and
+ * stance changes.
+ */
+public class CompanionIndex {
+
+    private static final Map<ResourceKey<Level>, CompanionIndex> INDICES = new HashMap<>();
+
+    /**
+     * Margin added to query boxes when picking cells, since companions are indexed by
+     * block position but their bounding box can overhang into a neighbouring cell
+     */
+    private static final double CELL_MARGIN = 1.0;
+
+    /** Regions are 32x32 chunk columns, the same as region files */
+    public static final int REGION_SHIFT = 5;
+
+    private static final int STANCE_COUNT = CombatStance.values().length;
+
+    /** All indexed companions, bucketed by cell */
+    private final Grid allCompanions = new Grid();
+
+    /** Companions bucketed by cell, per team */
+    private final Int2ObjectMap<Grid> teamGrids = new Int2ObjectOpenHashMap<>();
+
+    /** Companions grouped by owner UUID */
+    private final Map<UUID, Set<CompanionEntity>> ownerSets = new HashMap<>();
+
+    /** Indexed state for each companion, used to detect changes */
+    private final Map<CompanionEntity, Entry> entries = new HashMap<>();
+
+    /** Companion count per region key */
+    private final Long2IntMap regionCounts = new Long2IntOpenHashMap();
+
+    /** Village companion count per region key */
+    private final Long2IntMap villageRegionCounts = new Long2IntOpenHashMap();
+
+    /** Number of indexed village companions */
+    private int villageCount;
+
+    /** Companion count per team ID */
+    private final Int2IntMap teamCounts = new Int2IntOpenHashMap();
+
+    /** Companion count per mode/stance pair, indexed by {@link #stateKey} */
+    private final int[] stateCounts = new int[CompanionMode.values().length * STANCE_COUNT];
+
+    /**
+     * Gets the companion index for a level, creating it if needed.
+     *
+     * @param level The server level
+     * @return The level's companion index
+     */
+    public static CompanionIndex get(ServerLevel level) {
+        return INDICES.computeIfAbsent(level.dimension(), key -> new CompanionIndex());
+    }
+
+    /**
+     * Clears all indices. Call on server stop.
+     */
+    public static void clearAll() {
+        INDICES.clear();
+    }
+
+    // ========== Maintenance ==========
+
+    /**
+     * Adds a companion to the index. Called when the companion is loaded into the level.
+     *
+     * @param companion The companion to add
+     */
+    public void add(CompanionEntity companion) {
+        if (entries.containsKey(companion)) {
+            update(companion);
+            return;
+        }
+
+        Entry entry = new Entry(cellKey(companion), companion.getTeamId(), companion.getOwnerUUID(),
+                stateKey(companion));
+        entries.put(companion, entry);
+        allCompanions.add(entry.cell, companion);
+        teamGrid(entry.team).add(entry.cell, companion);
+        adjust(regionCounts, regionKey(entry.cell), 1);
+        teamCounts.mergeInt(entry.team, 1, Integer::sum);
+        stateCounts[entry.state]++;
+        if (entry.owner != null) {
+            ownerSets.computeIfAbsent(entry.owner, key -> new HashSet<>()).add(companion);
+        }
+        if (entry.isVillage()) {
+            adjustVillage(entry.cell, 1);
+        }
+    }
+
+    /**
+     * Removes a companion from the index. Called when the companion is unloaded or removed.
+     *
+     * @param companion The companion to remove
+     */
+    public void remove(CompanionEntity companion) {
+        Entry entry = entries.remove(companion);
+        if (entry == null) {
+            return;
+        }
+
+        allCompanions.remove(entry.cell, companion);
+        removeFromTeam(entry.team, entry.cell, companion);
+        removeFromOwner(entry.owner, companion);
+        adjust(regionCounts, regionKey(entry.cell), -1);
+        stateCounts[entry.state]--;
+        if (entry.isVillage()) {
+            adjustVillage(entry.cell, -1);
+        }
+    }
+
+    /**
+     * Re-indexes a companion if its cell, team or owner changed since the last update.
+     * Adds the companion if it is not indexed yet.
+     *
+     * @param companion The companion to update
+     * @return true if the companion changed cell or team
+     */
+    public boolean update(CompanionEntity companion) {
+        Entry entry = entries.get(companion);
+        if (entry == null) {
+            add(companion);
+            return true;
+        }
+
+        long cell = cellKey(companion);
+        int team = companion.getTeamId();
+        UUID owner = companion.getOwnerUUID();
+        int state = stateKey(companion);
+        boolean moved = team != entry.team || cell != entry.cell;
+        boolean wasVillage = entry.isVillage();
+        long oldCell = entry.cell;
+
+        if (team != entry.team) {
+            removeFromTeam(entry.team, entry.cell, companion);
+            teamGrid(team).add(cell, companion);
+            teamCounts.mergeInt(team, 1, Integer::sum);
+            entry.team = team;
+        } else if (cell != entry.cell) {
+            teamGrid(team).move(entry.cell, cell, companion);
+        }
+
+        if (cell != entry.cell) {
+            allCompanions.move(entry.cell, cell, companion);
+            long region = regionKey(cell);
+            long oldRegion = regionKey(entry.cell);
+            if (region != oldRegion) {
+                adjust(regionCounts, oldRegion, -1);
+                adjust(regionCounts, region, 1);
+            }
+            entry.cell = cell;
+        }
+
+        if (state != entry.state) {
+            stateCounts[entry.state]--;
+            stateCounts[state]++;
+            entry.state = state;
+        }
+
+        if (owner == null ? entry.owner != null : !owner.equals(entry.owner)) {
+            removeFromOwner(entry.owner, companion);
+            if (owner != null) {
+                ownerSets.computeIfAbsent(owner, key -> new HashSet<>()).add(companion);
+            }
+            entry.owner = owner;
+        }
+
+        boolean village = entry.isVillage();
+        if (wasVillage != village || (village && regionKey(cell) != regionKey(oldCell))) {
+            if (wasVillage) {
+                adjustVillage(oldCell, -1);
+            }
+            if (village) {
+                adjustVillage(cell, 1);
+            }
+        }
+        return moved;
+    }
+
+    // ========== Queries ==========
+
+    /**
+     * Gets all companions whose bounding box intersects the given box.
+     *
+     * @param box    The search box
+     * @param filter Additional filter applied to each candidate
+     * @return Matching companions
+     */
+    public List<CompanionEntity> getCompanions(AABB box, Predicate<CompanionEntity> filter) {
+        List<CompanionEntity> result = new ArrayList<>();
+        allCompanions.collect(box, filter, result);
+        return result;
+    }
+
+    /**
+     * Gets all companions of a team whose bounding box intersects the given box.
+     *
+     * @param team   The team ID to search
+     * @param box    The search box
+     * @param filter Additional filter applied to each candidate
+     * @return Matching companions
+     */
+    public List<CompanionEntity> getTeamMembers(int team, AABB box, Predicate<CompanionEntity> filter) {
+        Grid grid = teamGrids.get(team);
+        if (grid == null) {
+            return Collections.emptyList();
+        }
+        List<CompanionEntity> result = new ArrayList<>();
+        grid.collect(box, filter, result);
+        return result;
+    }
+
+    /**
+     * Gets all companions owned by a player whose bounding box intersects the given box.
+     *
+     * @param owner  The owner's UUID
+     * @param box    The search box
+     * @param filter Additional filter applied to each candidate
+     * @return Matching companions
+     */
+    public List<CompanionEntity> getOwnedCompanions(UUID owner, AABB box, Predicate<CompanionEntity> filter) {
+        Set<CompanionEntity> owned = ownerSets.get(owner);
+        if (owned == null) {
+            return Collections.emptyList();
+        }
+        List<CompanionEntity> result = new ArrayList<>();
+        for (CompanionEntity companion : owned) {
+            if (!companion.isRemoved() && companion.getBoundingBox().intersects(box) && filter.test(companion)) {
+                result.add(companion);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets all loaded companions owned by a player, regardless of position.
+     *
+     * @param owner The owner's UUID
+     * @return Unmodifiable view of the owner's companions
+     */
+    public Collection<CompanionEntity> getOwnedCompanions(UUID owner) {
+        Set<CompanionEntity> owned = ownerSets.get(owner);
+        return owned != null ? Collections.unmodifiableSet(owned) : Collections.emptySet();
+    }
+
+    /**
+     * Checks if any companion is indexed in a cell overlapping the given box.
+     * Only looks at cell occupancy, so it is cheap enough to call from every monster,
+     * but may report companions just outside the box.
+     *
+     * @param box The search box
+     * @return true if a nearby cell holds a companion
+     */
+    public boolean hasCompanionsNear(AABB box) {
+        return !entries.isEmpty() && allCompanions.isOccupied(box);
+    }
+
+    /**
+     * Gets the number of companions in this index.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Counts the indexed companions of each team.
+     *
+     * @return A new map from team ID to companion count
+     */
+    public Int2IntMap countByTeam() {
+        return new Int2IntOpenHashMap(teamCounts);
+    }
+
+    /**
+     * Counts the indexed companions of each owner. Unowned companions are not counted.
+     *
+     * @return A new map from owner UUID to companion count
+     */
+    public Map<UUID, Integer> countByOwner() {
+        Map<UUID, Integer> counts = new HashMap<>();
+        ownerSets.forEach((owner, owned) -> counts.put(owner, owned.size()));
+        return counts;
+    }
+
+    /**
+     * Counts the indexed companions in each chunk column.
+     *
+     * @return A new map from {@link ChunkPos#asLong} key to companion count
+     */
+    public Long2IntMap countByChunk() {
+        Long2IntMap counts = new Long2IntOpenHashMap(allCompanions.cells.size());
+        for (Long2ObjectMap.Entry<List<CompanionEntity>> cell : allCompanions.cells.long2ObjectEntrySet()) {
+            counts.put(cell.getLongKey(), cell.getValue().size());
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the indexed companions in each region.
+     *
+     * @return A new map from region key (see {@link #regionKey(int, int)}) to companion count
+     */
+    public Long2IntMap countByRegion() {
+        return new Long2IntOpenHashMap(regionCounts);
+    }
+
+    /**
+     * Gets the number of indexed companions in a region.
+     *
+     * @param regionX The region X coordinate (chunk X {@code >> REGION_SHIFT})
+     * @param regionZ The region Z coordinate (chunk Z {@code >> REGION_SHIFT})
+     * @return The companion count
+     */
+    public int getRegionCount(int regionX, int regionZ) {
+        return regionCounts.get(regionKey(regionX, regionZ));
+    }
+
+    /**
+     * Gets the number of indexed village companions in a region. Village companions are
+     * unowned and in the villager team, so player followers and companions of other
+     * teams are not counted.
+     *
+     * @param regionX The region X coordinate (chunk X {@code >> REGION_SHIFT})
+     * @param regionZ The region Z coordinate (chunk Z {@code >> REGION_SHIFT})
+     * @return The village companion count
+     */
+    public int getVillageRegionCount(int regionX, int regionZ) {
+        return villageRegionCounts.get(regionKey(regionX, regionZ));
+    }
+
+    /**
+     * Gets the number of indexed village companions, see {@link #getVillageRegionCount}.
+     */
+    public int getVillageCount() {
+        return villageCount;
+    }
+
+    /**
+     * Gets the number of indexed companions in a mode and stance.
+     *
+     * @param mode   The mode
+     * @param stance The combat stance
+     * @return The companion count
+     */
+    public int getCount(CompanionMode mode, CombatStance stance) {
+        return stateCounts[mode.ordinal() * STANCE_COUNT + stance.ordinal()];
+    }
+
+    /**
+     * Gets the key of a region, packed like {@link ChunkPos#asLong}.
+     *
+     * @param regionX The region X coordinate
+     * @param regionZ The region Z coordinate
+     * @return The region key
+     */
+    public static long regionKey(int regionX, int regionZ) {
+        return ChunkPos.asLong(regionX, regionZ);
+    }
+
+    // ========== Internals ==========
+
+    private Grid teamGrid(int team) {
+        return teamGrids.computeIfAbsent(team, key -> new Grid());
+    }
+
+    private void removeFromTeam(int team, long cell, CompanionEntity companion) {
+        int count = teamCounts.get(team) - 1;
+        if (count > 0) {
+            teamCounts.put(team, count);
+        } else {
+            teamCounts.remove(team);
+        }
+
+        Grid grid = teamGrids.get(team);
+        if (grid != null) {
+            grid.remove(cell, companion);
+            if (grid.isEmpty()) {
+                teamGrids.remove(team);
+            }
+        }
+    }
+
+    private void removeFromOwner(@Nullable UUID owner, CompanionEntity companion) {
+        if (owner == null) {
+            return;
+        }
+        Set<CompanionEntity> owned = ownerSets.get(owner);
+        if (owned != null) {
+            owned.remove(companion);
+            if (owned.isEmpty()) {
+                ownerSets.remove(owner);
+            }
+        }
+    }
+
+    private static long regionKey(long cell) {
+        return regionKey(ChunkPos.getX(cell) >> REGION_SHIFT, ChunkPos.getZ(cell) >> REGION_SHIFT);
+    }
+
+    private static int stateKey(CompanionEntity companion) {
+        return companion.getMode().ordinal() * STANCE_COUNT + companion.getCombatStance().ordinal();
+    }
+
+    private static void adjust(Long2IntMap counts, long key, int delta) {
+        int count = counts.get(key) + delta;
+        if (count > 0) {
+            counts.put(key, count);
+        } else {
+            counts.remove(key);
+        }
+    }
+
+    private void adjustVillage(long cell, int delta) {
+        adjust(villageRegionCounts, regionKey(cell), delta);
+        villageCount += delta;
+    }
+
+    private static long cellKey(CompanionEntity companion) {
+        return ChunkPos.asLong(
+                SectionPos.blockToSectionCoord(companion.getBlockX()),
+                SectionPos.blockToSectionCoord(companion.getBlockZ()));
+    }
+
+    /**
+     * Mutable indexed state for a single companion.
+     */
+    private static final class Entry {
+        long cell;
+        int team;
+        @Nullable
+        UUID owner;
+        int state;
+
+        Entry(long cell, int team, @Nullable UUID owner, int state) {
+            this.cell = cell;
+            this.team = team;
+            this.owner = owner;
+            this.state = state;
+        }
+
+        boolean isVillage() {
+            return owner == null && team == CompanionTeams.DEFAULT_TEAM_ID;
+        }
+    }
+
+    /**
+     * Chunk-column buckets of companions.
+     */
+    private static final class Grid {
+        private final Long2ObjectMap<List<CompanionEntity>> cells = new Long2ObjectOpenHashMap<>();
+
+        void add(long cell, CompanionEntity companion) {
+            cells.computeIfAbsent(cell, key -> new ArrayList<>(4)).add(companion);
+        }
+
+        void remove(long cell, CompanionEntity companion) {
+            List<CompanionEntity> bucket = cells.get(cell);
+            if (bucket != null) {
+                bucket.remove(companion);
+                if (bucket.isEmpty()) {
+                    cells.remove(cell);
+                }
+            }
+        }
+
+        void move(long from, long to, CompanionEntity companion) {
+            remove(from, companion);
+            add(to, companion);
+        }
+
+        boolean isEmpty() {
+            return cells.isEmpty();
+        }
+
+        boolean isOccupied(AABB box) {
+            int minX = SectionPos.blockToSectionCoord(Mth.floor(box.minX - CELL_MARGIN));
+            int maxX = SectionPos.blockToSectionCoord(Mth.floor(box.maxX + CELL_MARGIN));
+            int minZ = SectionPos.blockToSectionCoord(Mth.floor(box.minZ - CELL_MARGIN));
+            int maxZ = SectionPos.blockToSectionCoord(Mth.floor(box.maxZ + CELL_MARGIN));
+
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    if (cells.containsKey(ChunkPos.asLong(x, z))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        void collect(AABB box, Predicate<CompanionEntity> filter, List<CompanionEntity> result) {
+            int minX = SectionPos.blockToSectionCoord(Mth.floor(box.minX - CELL_MARGIN));
+            int maxX = SectionPos.blockToSectionCoord(Mth.floor(box.maxX + CELL_MARGIN));
+            int minZ = SectionPos.blockToSectionCoord(Mth.floor(box.minZ - CELL_MARGIN));
+            int maxZ = SectionPos.blockToSectionCoord(Mth.floor(box.maxZ + CELL_MARGIN));
+
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    List<CompanionEntity> bucket = cells.get(ChunkPos.asLong(x, z));
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (CompanionEntity companion : bucket) {
+                        if (!companion.isRemoved() && companion.getBoundingBox().intersects(box)
+                                && filter.test(companion)) {
+                            result.add(companion);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
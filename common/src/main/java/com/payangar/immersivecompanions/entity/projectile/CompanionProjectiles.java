@@ -0,0 +1,273 @@
+package com.payangar.immersivecompanions.entity.projectile;
+
+import com.payangar.immersivecompanions.ImmersiveCompanions;
+import com.payangar.immersivecompanions.config.ModConfig;
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.platform.Services;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.animal.IronGolem;
+import net.minecraft.world.entity.npc.AbstractVillager;
+import net.minecraft.world.entity.projectile.AbstractArrow;
+import net.minecraft.world.entity.projectile.Projectile;
+import net.minecraft.world.level.Level;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of projectiles fired by companions, one instance per level.
+ *
+ * <p>Each projectile is tagged with its shooter's team ID when fired, so the
+ * projectile hit filter can let it pass through same-team companions, iron golems and
+ * villagers with an int compare. The shooter itself is not needed after firing, which
+ * keeps the check valid even after the shooter dies or unloads. The team ID is also
+ * saved on the projectile as an entity tag, so arrows loaded back from disk are tracked
+ * again through {@link #restore}.
+ *
+ * <p>The hit filter is applied by the platform: a mixin on {@code AbstractArrow#canHitEntity}
+ * on Fabric and the projectile impact event on NeoForge.
+ *
+ * <p>The registry also bounds the lifetime of companion arrows, since companions have
+ * unlimited ammo. Arrows are not pickupable, are discarded shortly after they get
+ * stuck in the ground, and each level keeps at most
+ * {@link ModConfig#getCompanionArrowCap()} of them, evicting the oldest first.
+ */
+public class CompanionProjectiles {
+
+    private static final Map<ResourceKey<Level>, CompanionProjectiles> REGISTRIES = new HashMap<>();
+
+    /** Ticks between lifecycle sweeps */
+    private static final int SWEEP_INTERVAL = 20;
+    /** Ticks an arrow may sit in the ground before it is discarded (5 seconds) */
+    private static final int IN_GROUND_DESPAWN_TICKS = 100;
+    /** Entity tag prefix saving a companion projectile's team ID */
+    private static final String TEAM_TAG_PREFIX = ImmersiveCompanions.MOD_ID + ".projectile_team.";
+
+    /** Tracked projectiles, in firing order */
+    private final Reference2ObjectLinkedOpenHashMap<Projectile, Tracked> tracked = new Reference2ObjectLinkedOpenHashMap<>();
+
+    /** Projectiles discarded because the level was over its cap, since server start */
+    private long evictedCount;
+    /** Projectiles discarded after sitting in the ground, since server start */
+    private long despawnedCount;
+
+    /**
+     * Gets the projectile registry for a level, creating it if needed.
+     *
+     * @param level The server level
+     * @return The level's projectile registry
+     */
+    public static CompanionProjectiles get(ServerLevel level) {
+        return REGISTRIES.computeIfAbsent(level.dimension(), key -> new CompanionProjectiles());
+    }
+
+    /**
+     * Clears all registries. Call on server stop.
+     */
+    public static void clearAll() {
+        REGISTRIES.clear();
+    }
+
+    /**
+     * Runs the lifecycle sweep for a level if it has any companion projectiles.
+     * Call at the end of every level tick.
+     *
+     * @param level The server level
+     */
+    public static void tick(ServerLevel level) {
+        CompanionProjectiles registry = REGISTRIES.get(level.dimension());
+        if (registry != null && !registry.tracked.isEmpty() && level.getGameTime() % SWEEP_INTERVAL == 0) {
+            registry.sweep();
+        }
+    }
+
+    // ========== Tracking ==========
+
+    /**
+     * Tags a projectile as fired by a companion and applies the arrow lifecycle.
+     * Evicts the oldest companion projectiles if the level is over its cap.
+     *
+     * @param projectile The fired projectile
+     * @param shooter    The companion that fired it
+     */
+    public void register(Projectile projectile, CompanionEntity shooter) {
+        if (projectile instanceof AbstractArrow arrow) {
+            arrow.pickup = AbstractArrow.Pickup.DISALLOWED;
+        }
+        projectile.addTag(TEAM_TAG_PREFIX + shooter.getTeamId());
+        track(projectile, shooter.getTeamId());
+    }
+
+    /**
+     * Resumes tracking a companion projectile loaded back from disk, reading its team
+     * from the saved tag. Called when a projectile joins the level; projectiles not
+     * fired by a companion are ignored.
+     *
+     * @param projectile The loaded projectile
+     */
+    public void restore(Projectile projectile) {
+        if (tracked.containsKey(projectile)) {
+            return;
+        }
+        for (String tag : projectile.getTags()) {
+            if (tag.startsWith(TEAM_TAG_PREFIX)) {
+                try {
+                    track(projectile, Integer.parseInt(tag.substring(TEAM_TAG_PREFIX.length())));
+                } catch (NumberFormatException e) {
+                    ImmersiveCompanions.LOGGER.debug("Ignoring malformed companion projectile tag {}", tag);
+                }
+                return;
+            }
+        }
+    }
+
+    private void track(Projectile projectile, int team) {
+        tracked.put(projectile, new Tracked(team));
+
+        int cap = ModConfig.get().getCompanionArrowCap();
+        while (tracked.size() > cap) {
+            Projectile oldest = tracked.firstKey();
+            tracked.removeFirst();
+            if (!oldest.isRemoved()) {
+                oldest.discard();
+                evictedCount++;
+            }
+        }
+    }
+
+    /**
+     * Stops tracking a projectile. Called when the projectile leaves the level.
+     *
+     * @param projectile The projectile
+     */
+    public void remove(Projectile projectile) {
+        tracked.remove(projectile);
+    }
+
+    /**
+     * Gets the team a projectile was fired for.
+     *
+     * @param projectile The projectile
+     * @return The shooter's team ID, or -1 if the projectile was not fired by a companion
+     */
+    public int getTeam(Projectile projectile) {
+        Tracked entry = tracked.get(projectile);
+        return entry != null ? entry.team : -1;
+    }
+
+    // ========== Lifecycle ==========
+
+    /**
+     * Discards arrows that have been in the ground for {@link #IN_GROUND_DESPAWN_TICKS}.
+     */
+    private void sweep() {
+        ObjectIterator<Reference2ObjectMap.Entry<Projectile, Tracked>> iterator =
+                tracked.reference2ObjectEntrySet().fastIterator();
+        while (iterator.hasNext()) {
+            Reference2ObjectMap.Entry<Projectile, Tracked> entry = iterator.next();
+            Projectile projectile = entry.getKey();
+            Tracked state = entry.getValue();
+
+            if (projectile.isRemoved()) {
+                iterator.remove();
+                continue;
+            }
+
+            if (projectile instanceof AbstractArrow arrow && Services.get().isInGround(arrow)) {
+                state.groundTicks += SWEEP_INTERVAL;
+                if (state.groundTicks >= IN_GROUND_DESPAWN_TICKS) {
+                    iterator.remove();
+                    projectile.discard();
+                    despawnedCount++;
+                }
+            } else {
+                state.groundTicks = 0;
+            }
+        }
+    }
+
+    // ========== Stats ==========
+
+    /**
+     * Gets the number of companion projectiles currently tracked in this level.
+     */
+    public int getTrackedCount() {
+        return tracked.size();
+    }
+
+    /**
+     * Gets the number of tracked projectiles stuck in the ground.
+     */
+    public int getStuckCount() {
+        int stuck = 0;
+        for (Tracked state : tracked.values()) {
+            if (state.groundTicks > 0) {
+                stuck++;
+            }
+        }
+        return stuck;
+    }
+
+    /**
+     * Gets the number of projectiles evicted for exceeding the level cap since server start.
+     */
+    public long getEvictedCount() {
+        return evictedCount;
+    }
+
+    /**
+     * Gets the number of projectiles despawned after sitting in the ground since server start.
+     */
+    public long getDespawnedCount() {
+        return despawnedCount;
+    }
+
+    // ========== Hit Filter ==========
+
+    /**
+     * Checks if a projectile should pass through an entity instead of hitting it.
+     * Companion projectiles pass through same-team companions, iron golems and villagers.
+     *
+     * @param projectile The projectile about to hit
+     * @param entity     The entity in its path
+     * @return true if the hit should be ignored
+     */
+    public static boolean shouldPassThrough(Projectile projectile, Entity entity) {
+        // Cheap type checks first, so most hits never touch the registry
+        boolean companion = entity instanceof CompanionEntity;
+        if (!companion && !(entity instanceof IronGolem) && !(entity instanceof AbstractVillager)) {
+            return false;
+        }
+        if (!ModConfig.get().isEnableTeamAwareProjectiles()
+                || !(projectile.level() instanceof ServerLevel serverLevel)) {
+            return false;
+        }
+
+        CompanionProjectiles registry = REGISTRIES.get(serverLevel.dimension());
+        if (registry == null) {
+            return false;
+        }
+        int team = registry.getTeam(projectile);
+        if (team < 0) {
+            return false;
+        }
+        return !companion || ((CompanionEntity) entity).getTeamId() == team;
+    }
+
+    /**
+     * Lifecycle state for one tracked projectile.
+     */
+    private static final class Tracked {
+        private final int team;
+        private int groundTicks;
+
+        private Tracked(int team) {
+            this.team = team;
+        }
+    }
+}
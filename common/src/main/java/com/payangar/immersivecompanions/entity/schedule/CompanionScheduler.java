@@ -0,0 +1,168 @@
+package com.payangar.immersivecompanions.entity.schedule;
+
+import com.payangar.immersivecompanions.config.ModConfig;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-tick budget for companions' periodic AI checks, one instance per level.
+ *
+ * <p>Each companion runs its periodic checks through a {@link ScheduledCheck}, which
+ * places the check on a slot within its interval derived from the companion's UUID, so
+ * companions loaded together do not all check on the same tick. On top of that, the
+ * scheduler caps how many budgeted checks run per level per tick
+ * ({@link ModConfig#getAiCheckBudgetPerTick()}); checks over the cap stay due and run
+ * on a following tick.
+ *
+ * <p>Companions tick in a fixed order, so a first-come budget would always leave the
+ * same companions at the end of the list waiting. The budget is therefore served in
+ * three tiers: checks deferred on an earlier tick come first, with part of the budget
+ * reserved for them; then checks on their slot; and checks run early because of an
+ * urgent event only take budget no due check is waiting for.
+ *
+ * <p>Budgeted checks run from target goals, which {@code Mob.serverAiStep} only
+ * evaluates every other tick, so a check refused on one tick is retried two ticks later.
+ * Reservations are therefore kept per tick parity: checks refused on tick T hold budget
+ * on tick T+2, and do not block companions polled on the ticks in between.
+ *
+ * <p>The scheduler keeps the highest number of checks run in one tick and the number of
+ * deferred checks, so spikes can be traced against the budget.
+ */
+public class CompanionScheduler {
+
+    private static final Map<ResourceKey<Level>, CompanionScheduler> SCHEDULERS = new HashMap<>();
+
+    /**
+     * The periodic checks companions run, with their interval in ticks.
+     * Unbudgeted checks are cheap and only use the jittered slot.
+     */
+    public enum Check {
+        TEAM_COORDINATION(20, true),
+        DEFEND_TEAMMATES(20, true),
+        ASSIST_OWNER(20, true),
+        DEFEND_VILLAGE(20, true),
+        HEALTH(10, false);
+
+        private final int interval;
+        private final boolean budgeted;
+
+        Check(int interval, boolean budgeted) {
+            this.interval = interval;
+            this.budgeted = budgeted;
+        }
+
+        public int getInterval() {
+            return interval;
+        }
+
+        public boolean isBudgeted() {
+            return budgeted;
+        }
+    }
+
+    private long currentTick = Long.MIN_VALUE;
+    private int checksThisTick;
+    /** Budget still held this tick for checks deferred two ticks ago */
+    private int reserved;
+    /** Due checks refused per tick parity, reserved for two ticks later */
+    private final int[] refused = new int[2];
+
+    /** Highest number of budgeted checks run in one tick, since server start */
+    private int peakChecksPerTick;
+    /** Budgeted checks run since server start */
+    private long checkCount;
+    /** Due checks pushed to a later tick by the budget, since server start; each counted once */
+    private long deferredCount;
+
+    /**
+     * Gets the scheduler for a level, creating it if needed.
+     *
+     * @param level The server level
+     * @return The level's scheduler
+     */
+    public static CompanionScheduler get(ServerLevel level) {
+        return SCHEDULERS.computeIfAbsent(level.dimension(), key -> new CompanionScheduler());
+    }
+
+    /**
+     * Clears all schedulers. Call on server stop.
+     */
+    public static void clearAll() {
+        SCHEDULERS.clear();
+    }
+
+    /**
+     * Takes one unit of this tick's budget.
+     *
+     * @param now     The level's game time
+     * @param due     Whether the check is on or past its slot, rather than run early
+     * @param waiting Whether the check was already deferred on an earlier tick
+     * @return true if the check may run this tick, false if it must wait for a later tick
+     */
+    boolean tryConsume(long now, boolean due, boolean waiting) {
+        if (now != currentTick) {
+            currentTick = now;
+            checksThisTick = 0;
+            int parity = (int) (now & 1);
+            reserved = refused[parity];
+            refused[parity] = 0;
+        }
+
+        int budget = ModConfig.get().getAiCheckBudgetPerTick();
+        boolean allowed;
+        if (waiting) {
+            allowed = checksThisTick < budget;
+            if (reserved > 0) {
+                reserved--;
+            }
+        } else if (due) {
+            allowed = checksThisTick + reserved < budget;
+        } else {
+            allowed = refused[(int) (now & 1)] == 0 && checksThisTick + reserved < budget;
+        }
+
+        if (!allowed) {
+            if (due) {
+                refused[(int) (now & 1)]++;
+                if (!waiting) {
+                    deferredCount++;
+                }
+            }
+            return false;
+        }
+        checksThisTick++;
+        checkCount++;
+        if (checksThisTick > peakChecksPerTick) {
+            peakChecksPerTick = checksThisTick;
+        }
+        return true;
+    }
+
+    // ========== Stats ==========
+
+    /**
+     * Gets the highest number of budgeted checks run in one tick since server start.
+     * Never exceeds the configured budget.
+     */
+    public int getPeakChecksPerTick() {
+        return peakChecksPerTick;
+    }
+
+    /**
+     * Gets the number of budgeted checks run since server start.
+     */
+    public long getCheckCount() {
+        return checkCount;
+    }
+
+    /**
+     * Gets the number of due checks deferred to a later tick since server start.
+     */
+    public long getDeferredCount() {
+        return deferredCount;
+    }
+}
@@ -0,0 +1,87 @@
+package com.payangar.immersivecompanions.entity.schedule;
+
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+
+import java.util.UUID;
+
+/**
+ * One companion's slot for one periodic check.
+ *
+ * <p>The check first becomes due at an offset within its interval derived from the
+ * companion's UUID and the check type, and then once per interval on that same slot.
+ * A due budgeted check that is deferred by the {@link CompanionScheduler} stays due and
+ * is retried whenever it is polled again, ahead of checks that were not deferred, until
+ * it runs; budgeted checks are polled from target goals, so that is every other tick. The
+ * following run goes back to the original slot.
+ */
+public class ScheduledCheck {
+
+    private static final long UNSCHEDULED = Long.MIN_VALUE;
+
+    private final CompanionScheduler.Check check;
+    private long nextTick = UNSCHEDULED;
+    /** Whether the check is due but was refused by the budget */
+    private boolean waiting;
+
+    public ScheduledCheck(CompanionScheduler.Check check) {
+        this.check = check;
+    }
+
+    /**
+     * Checks if the check should run now, and if so, books its next slot.
+     *
+     * @param companion The companion running the check
+     * @return true if the check should run this tick
+     */
+    public boolean tryRun(CompanionEntity companion) {
+        return tryRun(companion, false);
+    }
+
+    /**
+     * Checks if the check should run now, and if so, books its next slot.
+     *
+     * @param companion The companion running the check
+     * @param urgent    Run ahead of the slot, e.g. because a teammate just published an
+     *                  event; still subject to the per-tick budget, after due checks
+     * @return true if the check should run this tick
+     */
+    public boolean tryRun(CompanionEntity companion, boolean urgent) {
+        if (!(companion.level() instanceof ServerLevel serverLevel)) {
+            return false;
+        }
+
+        long now = serverLevel.getGameTime();
+        int interval = check.getInterval();
+        if (nextTick == UNSCHEDULED) {
+            // Start on this companion's slot rather than on the tick it loaded
+            nextTick = now + Math.floorMod(slot(companion.getUUID()) - now, interval);
+        }
+        boolean due = now >= nextTick;
+        if (!due && !urgent) {
+            return false;
+        }
+        if (check.isBudgeted() && !CompanionScheduler.get(serverLevel).tryConsume(now, due, waiting)) {
+            // An urgent check refused ahead of its slot is not deferred, just skipped
+            waiting = due;
+            return false;
+        }
+        waiting = false;
+
+        if (nextTick <= now) {
+            nextTick += ((now - nextTick) / interval + 1) * interval;
+        }
+        return true;
+    }
+
+    /**
+     * Derives a stable slot within the interval from the UUID and the check type,
+     * so different checks of the same companion land on different ticks.
+     */
+    private int slot(UUID uuid) {
+        long bits = uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+        int hash = Mth.murmurHash3Mixer((int) (bits ^ (bits >>> 32)) + check.ordinal() * 0x9E3779B9);
+        return Math.floorMod(hash, check.getInterval());
+    }
+}
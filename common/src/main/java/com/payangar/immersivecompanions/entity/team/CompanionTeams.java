@@ -0,0 +1,125 @@
+package com.payangar.immersivecompanions.entity.team;
+
+import com.payangar.immersivecompanions.ImmersiveCompanions;
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Server-side registry that interns companion team keys (e.g. "village_guard",
+ * "player_&lt;uuid&gt;") into compact int IDs.
+ *
+ * <p>Companions store and sync only the int ID, so team checks on hot paths
+ * ({@code isOnSameTeam}, friendly-fire filters, teammate queries) are int compares.
+ * The key-to-ID table is saved with the overworld so IDs stay stable across restarts.
+ *
+ * <p>The default village team is always ID {@link #DEFAULT_TEAM_ID}, which lets the
+ * client recognise it without knowing the table.
+ */
+public class CompanionTeams extends SavedData {
+
+    /** ID of the default team, fixed so it is known on both sides */
+    public static final int DEFAULT_TEAM_ID = 0;
+
+    private static final String DATA_NAME = ImmersiveCompanions.MOD_ID + "_teams";
+
+    private static final SavedData.Factory<CompanionTeams> FACTORY = new SavedData.Factory<>(
+            CompanionTeams::new, CompanionTeams::load, null);
+
+    /** Team keys indexed by ID */
+    private final List<String> keys = new ArrayList<>();
+
+    /** Team IDs by key */
+    private final Object2IntMap<String> ids = new Object2IntOpenHashMap<>();
+
+    private CompanionTeams() {
+        ids.defaultReturnValue(-1);
+        getId(CompanionEntity.DEFAULT_TEAM);
+    }
+
+    /**
+     * Gets the team registry for a server.
+     *
+     * @param server The server
+     * @return The server's team registry
+     */
+    public static CompanionTeams get(MinecraftServer server) {
+        return server.overworld().getDataStorage().computeIfAbsent(FACTORY, DATA_NAME);
+    }
+
+    /**
+     * Gets the team key for a player's recruited companions.
+     *
+     * @param playerUUID The owning player's UUID
+     * @return The player's team key
+     */
+    public static String playerTeam(UUID playerUUID) {
+        return "player_" + playerUUID;
+    }
+
+    /**
+     * Gets the ID for a team key, assigning a new one if the key is unknown.
+     *
+     * @param key The team key
+     * @return The team's int ID
+     */
+    public int getId(String key) {
+        int id = ids.getInt(key);
+        if (id < 0) {
+            id = keys.size();
+            keys.add(key);
+            ids.put(key, id);
+            setDirty();
+        }
+        return id;
+    }
+
+    /**
+     * Gets the key for a team ID.
+     *
+     * @param id The team ID
+     * @return The team key, or null if the ID is unknown
+     */
+    @Nullable
+    public String getKey(int id) {
+        return id >= 0 && id < keys.size() ? keys.get(id) : null;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
+        ListTag list = new ListTag();
+        for (String key : keys) {
+            list.add(StringTag.valueOf(key));
+        }
+        tag.put("Teams", list);
+        return tag;
+    }
+
+    private static CompanionTeams load(CompoundTag tag, HolderLookup.Provider registries) {
+        CompanionTeams teams = new CompanionTeams();
+        ListTag list = tag.getList("Teams", Tag.TAG_STRING);
+
+        // Entries are stored in ID order; the default team is always first
+        if (!list.isEmpty() && !CompanionEntity.DEFAULT_TEAM.equals(list.getString(0))) {
+            ImmersiveCompanions.LOGGER.warn("Companion team table is corrupt, team IDs will be reassigned");
+            return teams;
+        }
+        for (int i = 1; i < list.size(); i++) {
+            teams.keys.add(list.getString(i));
+            teams.ids.put(list.getString(i), i);
+        }
+        return teams;
+    }
+}
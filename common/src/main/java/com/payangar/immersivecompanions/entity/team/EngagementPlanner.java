@@ -0,0 +1,237 @@
+package com.payangar.immersivecompanions.entity.team;
+
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2BooleanMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.level.Level;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Spreads each team's companions across the threats its members know about,
+ * one instance per level.
+ *
+ * <p>Without a plan, every teammate assisting from the {@link TeamBlackboard} piles onto
+ * the same freshest target. The planner instead keeps one assignment per companion and a
+ * per-target head count split by melee and ranged, and caps how many of each may engage
+ * one target. A companion picks the cheapest uncapped threat, where cost is its distance
+ * (weighted less for ranged companions, which fight from afar), plus a penalty per
+ * teammate already on that target, minus a bonus for threats attacking teammates.
+ *
+ * <p>Assignments are sticky: a companion keeps its target until the target dies or the
+ * companion disengages, so paths are not recomputed every time the threat list changes.
+ * A periodic sweep drops assignments whose target died or whose companion left the team.
+ */
+public class EngagementPlanner {
+
+    private static final Map<ResourceKey<Level>, EngagementPlanner> PLANNERS = new HashMap<>();
+
+    /** Maximum melee companions engaging one target */
+    public static final int MELEE_CAP = 3;
+    /** Maximum ranged companions engaging one target */
+    public static final int RANGED_CAP = 4;
+    /** Extra cost, in blocks, per teammate already assigned to a target */
+    private static final double LOAD_PENALTY = 8.0;
+    /** Distance weight for ranged companions */
+    private static final double RANGED_DISTANCE_WEIGHT = 0.5;
+    /** Cost reduction, in blocks, for threats that are attacking a teammate */
+    private static final double DEFEND_BONUS = 6.0;
+    /** Ticks between sweeps of a team's assignments */
+    private static final int SWEEP_INTERVAL = 20;
+
+    private final Int2ObjectMap<Plan> plans = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * Gets the engagement planner for a level, creating it if needed.
+     *
+     * @param level The server level
+     * @return The level's engagement planner
+     */
+    public static EngagementPlanner get(ServerLevel level) {
+        return PLANNERS.computeIfAbsent(level.dimension(), key -> new EngagementPlanner());
+    }
+
+    /**
+     * Clears all planners. Call on server stop.
+     */
+    public static void clearAll() {
+        PLANNERS.clear();
+    }
+
+    // ========== Assignments ==========
+
+    /**
+     * Gets the target a companion is currently assigned to.
+     * Drops the assignment if the target died.
+     *
+     * @param companion The companion
+     * @return The assigned target, or null if the companion needs a new assignment
+     */
+    @Nullable
+    public LivingEntity getAssignment(CompanionEntity companion) {
+        Plan plan = plan(companion);
+        Assignment assignment = plan.assignments.get(companion);
+        if (assignment == null) {
+            return null;
+        }
+        if (!assignment.target.isAlive()) {
+            plan.unassign(companion);
+            return null;
+        }
+        return assignment.target;
+    }
+
+    /**
+     * Assigns a companion to the cheapest threat that still has room for its combat type,
+     * replacing any previous assignment.
+     *
+     * @param companion The companion to assign
+     * @param threats   Candidate threats, mapped to true if they are attacking a teammate
+     * @return The assigned target, or null if every threat is at its cap
+     */
+    @Nullable
+    public LivingEntity assign(CompanionEntity companion, Reference2BooleanMap<LivingEntity> threats) {
+        Plan plan = plan(companion);
+        plan.unassign(companion);
+
+        boolean ranged = companion.getCombatType().isRanged();
+        double distanceWeight = ranged ? RANGED_DISTANCE_WEIGHT : 1.0;
+        LivingEntity best = null;
+        double bestCost = Double.MAX_VALUE;
+
+        for (Reference2BooleanMap.Entry<LivingEntity> entry : threats.reference2BooleanEntrySet()) {
+            LivingEntity threat = entry.getKey();
+            Load load = plan.loads.get(threat);
+            if (load != null && (ranged ? load.ranged >= RANGED_CAP : load.melee >= MELEE_CAP)) {
+                continue;
+            }
+
+            double cost = Math.sqrt(companion.distanceToSqr(threat)) * distanceWeight;
+            if (load != null) {
+                cost += (load.melee + load.ranged) * LOAD_PENALTY;
+            }
+            if (entry.getBooleanValue()) {
+                cost -= DEFEND_BONUS;
+            }
+            if (cost < bestCost) {
+                best = threat;
+                bestCost = cost;
+            }
+        }
+
+        if (best != null) {
+            plan.assign(companion, best, ranged);
+        }
+        return best;
+    }
+
+    /**
+     * Releases a companion's assignment. Called when it disengages.
+     *
+     * @param companion The companion
+     */
+    public void release(CompanionEntity companion) {
+        Plan plan = plans.get(companion.getTeamId());
+        if (plan != null) {
+            plan.unassign(companion);
+        }
+    }
+
+    private Plan plan(CompanionEntity companion) {
+        int team = companion.getTeamId();
+        Plan plan = plans.computeIfAbsent(team, key -> new Plan(team));
+        long now = companion.level().getGameTime();
+        if (now - plan.sweptTick >= SWEEP_INTERVAL) {
+            plan.sweep();
+            plan.sweptTick = now;
+        }
+        return plan;
+    }
+
+    /**
+     * Assignments and per-target head counts for one team.
+     */
+    private static final class Plan {
+        private final int team;
+        private final Reference2ObjectMap<CompanionEntity, Assignment> assignments = new Reference2ObjectOpenHashMap<>();
+        private final Reference2ObjectMap<LivingEntity, Load> loads = new Reference2ObjectOpenHashMap<>();
+        private long sweptTick = Long.MIN_VALUE / 2;
+
+        private Plan(int team) {
+            this.team = team;
+        }
+
+        void assign(CompanionEntity companion, LivingEntity target, boolean ranged) {
+            assignments.put(companion, new Assignment(target, ranged));
+            Load load = loads.computeIfAbsent(target, key -> new Load());
+            if (ranged) {
+                load.ranged++;
+            } else {
+                load.melee++;
+            }
+        }
+
+        void unassign(CompanionEntity companion) {
+            Assignment assignment = assignments.remove(companion);
+            if (assignment != null) {
+                release(assignment);
+            }
+        }
+
+        /**
+         * Drops assignments whose target died or whose companion is gone or changed teams.
+         */
+        void sweep() {
+            Iterator<Reference2ObjectMap.Entry<CompanionEntity, Assignment>> iterator =
+                    assignments.reference2ObjectEntrySet().iterator();
+            while (iterator.hasNext()) {
+                Reference2ObjectMap.Entry<CompanionEntity, Assignment> entry = iterator.next();
+                CompanionEntity companion = entry.getKey();
+                Assignment assignment = entry.getValue();
+                if (companion.isRemoved() || !companion.isAlive() || companion.getTeamId() != team
+                        || !assignment.target.isAlive()) {
+                    iterator.remove();
+                    release(assignment);
+                }
+            }
+        }
+
+        private void release(Assignment assignment) {
+            Load load = loads.get(assignment.target);
+            if (load == null) {
+                return;
+            }
+            if (assignment.ranged) {
+                load.ranged--;
+            } else {
+                load.melee--;
+            }
+            if (load.melee <= 0 && load.ranged <= 0) {
+                loads.remove(assignment.target);
+            }
+        }
+    }
+
+    /**
+     * The target one companion is assigned to.
+     */
+    private record Assignment(LivingEntity target, boolean ranged) {
+    }
+
+    /**
+     * Number of melee and ranged companions assigned to one target.
+     */
+    private static final class Load {
+        private int melee;
+        private int ranged;
+    }
+}
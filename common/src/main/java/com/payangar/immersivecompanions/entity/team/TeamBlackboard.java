@@ -0,0 +1,392 @@
+package com.payangar.immersivecompanions.entity.team;
+
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2BooleanMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Per-team threat blackboard, one instance per level.
+ *
+ * <p>Companions publish into their team's board instead of being polled by teammates:
+ * {@link CompanionEntity#hurt} reports "teammate X was hit by Y at tick T" and
+ * {@link CompanionEntity#setTarget} reports "teammate X is engaging Z". Target goals
+ * read the freshest relevant entry within range, so coordination costs O(events)
+ * rather than O(teammates) per companion.
+ *
+ * <p>Reports are bucketed by the publisher's chunk column, like the
+ * {@link com.payangar.immersivecompanions.entity.index.CompanionIndex}, and follow it
+ * as it moves. Readers only visit the cells within their range, and each cell carries a
+ * stamp that is raised whenever a report in it changes, so goals react on the tick a
+ * nearby event happens without being woken by events elsewhere in the level. A
+ * companion's report is dropped when it unloads.
+ */
+public class TeamBlackboard {
+
+    private static final Map<ResourceKey<Level>, TeamBlackboard> BLACKBOARDS = new HashMap<>();
+
+    /**
+     * Margin added to search boxes when picking cells, since reports are bucketed by
+     * block position but the publisher's bounding box can overhang into a neighbouring cell
+     */
+    private static final double CELL_MARGIN = 1.0;
+
+    private final Int2ObjectMap<Board> boards = new Int2ObjectOpenHashMap<>();
+    private final Map<CompanionEntity, Report> reports = new HashMap<>();
+    /** Source of cell stamps; only ever increases */
+    private long sequence;
+
+    /**
+     * Gets the blackboard for a level, creating it if needed.
+     *
+     * @param level The server level
+     * @return The level's team blackboard
+     */
+    public static TeamBlackboard get(ServerLevel level) {
+        return BLACKBOARDS.computeIfAbsent(level.dimension(), key -> new TeamBlackboard());
+    }
+
+    /**
+     * Clears all blackboards. Call on server stop.
+     */
+    public static void clearAll() {
+        BLACKBOARDS.clear();
+    }
+
+    // ========== Publishing ==========
+
+    /**
+     * Records that a companion was hurt by an attacker.
+     *
+     * @param victim   The companion that was hurt
+     * @param attacker The entity that hurt it
+     */
+    public void reportAttack(CompanionEntity victim, LivingEntity attacker) {
+        Report report = reports.computeIfAbsent(victim, Report::new);
+        place(report);
+        report.attacker = attacker;
+        report.attackTick = victim.level().getGameTime();
+        touch(report);
+    }
+
+    /**
+     * Records the target a companion is currently engaging.
+     *
+     * @param companion The companion whose target changed
+     * @param target    The new target, or null if it disengaged
+     */
+    public void reportEngagement(CompanionEntity companion, @Nullable LivingEntity target) {
+        if (target == null) {
+            // Nothing to clear if the companion never published
+            Report report = reports.get(companion);
+            if (report != null && report.engaged != null) {
+                report.engaged = null;
+                touch(report);
+                if (report.attacker == null) {
+                    remove(companion);
+                }
+            }
+            return;
+        }
+
+        Report report = reports.computeIfAbsent(companion, Report::new);
+        place(report);
+        if (report.engaged != target) {
+            report.engaged = target;
+            touch(report);
+        }
+    }
+
+    /**
+     * Moves a companion's report to its current cell and team. Call when the companion
+     * changed cell or team; does nothing if it has no report.
+     *
+     * @param companion The companion that moved
+     */
+    public void relocate(CompanionEntity companion) {
+        Report report = reports.get(companion);
+        if (report != null && place(report)) {
+            touch(report);
+        }
+    }
+
+    /**
+     * Drops a companion's report. Call when the companion unloads.
+     *
+     * @param companion The companion to drop
+     */
+    public void remove(CompanionEntity companion) {
+        Report report = reports.remove(companion);
+        if (report != null) {
+            unlink(report);
+        }
+    }
+
+    // ========== Reading ==========
+
+    /**
+     * Gets the revision of the reports near a reader. The revision changes whenever a
+     * teammate within range publishes a new event.
+     *
+     * @param reader The companion checking for events
+     * @param range  Maximum distance to the publishing teammate
+     * @return The revision, or 0 if no teammate in range has published
+     */
+    public long getRevision(CompanionEntity reader, double range) {
+        Board board = boards.get(reader.getTeamId());
+        if (board == null) {
+            return 0L;
+        }
+
+        AABB box = reader.getBoundingBox().inflate(range + CELL_MARGIN);
+        long revision = 0L;
+        for (int x = cellCoord(box.minX); x <= cellCoord(box.maxX); x++) {
+            for (int z = cellCoord(box.minZ); z <= cellCoord(box.maxZ); z++) {
+                Cell cell = board.cells.get(ChunkPos.asLong(x, z));
+                if (cell != null) {
+                    revision = Math.max(revision, cell.stamp);
+                }
+            }
+        }
+        return revision;
+    }
+
+    /**
+     * Finds the freshest attacker of a teammate within range of the reader.
+     *
+     * @param reader The companion looking for a target
+     * @param range  Maximum distance to the hurt teammate
+     * @param maxAge Maximum age of the attack in ticks
+     * @param filter Additional filter applied to the attacker
+     * @return The attacker, or null if none found
+     */
+    @Nullable
+    public LivingEntity findRecentAttacker(CompanionEntity reader, double range, int maxAge,
+                                           Predicate<LivingEntity> filter) {
+        long now = reader.level().getGameTime();
+        AABB searchBox = reader.getBoundingBox().inflate(range);
+        LivingEntity best = null;
+        long bestTick = Long.MIN_VALUE;
+
+        for (Report report : nearbyReports(reader, searchBox)) {
+            CompanionEntity teammate = report.companion;
+            if (!isValidReporter(teammate, reader)) {
+                continue;
+            }
+
+            LivingEntity attacker = report.attacker;
+            if (attacker == null) {
+                continue;
+            }
+            if (!attacker.isAlive() || now - report.attackTick > maxAge) {
+                report.attacker = null;
+                if (report.engaged == null) {
+                    remove(teammate);
+                }
+                continue;
+            }
+
+            if (report.attackTick <= bestTick || !teammate.getBoundingBox().intersects(searchBox)) {
+                continue;
+            }
+            if (filter.test(attacker)) {
+                best = attacker;
+                bestTick = report.attackTick;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Collects every live threat published by teammates within range of the reader:
+     * recent attackers of teammates and targets teammates are engaging.
+     *
+     * @param reader The companion looking for targets
+     * @param range  Maximum distance to the publishing teammate
+     * @param maxAge Maximum age of an attack in ticks
+     * @param filter Additional filter applied to each threat
+     * @param out    Receives each threat, mapped to true if it recently attacked a teammate
+     */
+    public void collectThreats(CompanionEntity reader, double range, int maxAge,
+                               Predicate<LivingEntity> filter, Reference2BooleanMap<LivingEntity> out) {
+        long now = reader.level().getGameTime();
+        AABB searchBox = reader.getBoundingBox().inflate(range);
+
+        for (Report report : nearbyReports(reader, searchBox)) {
+            CompanionEntity teammate = report.companion;
+            if (!isValidReporter(teammate, reader)) {
+                continue;
+            }
+
+            LivingEntity attacker = report.attacker;
+            if (attacker != null && (!attacker.isAlive() || now - report.attackTick > maxAge)) {
+                report.attacker = attacker = null;
+            }
+            LivingEntity engaged = report.engaged;
+            if (engaged != null && !engaged.isAlive()) {
+                report.engaged = engaged = null;
+            }
+            if (attacker == null && engaged == null) {
+                remove(teammate);
+                continue;
+            }
+
+            if (!teammate.getBoundingBox().intersects(searchBox)) {
+                continue;
+            }
+            if (attacker != null && filter.test(attacker)) {
+                out.put(attacker, true);
+            }
+            if (engaged != null && !out.containsKey(engaged) && filter.test(engaged)) {
+                out.put(engaged, false);
+            }
+        }
+    }
+
+    // ========== Internals ==========
+
+    /**
+     * Checks if a published report can be used by the reader.
+     * Reports from the reader itself, dead companions, or companions that switched
+     * teams since publishing are skipped.
+     */
+    private static boolean isValidReporter(CompanionEntity teammate, CompanionEntity reader) {
+        return teammate != reader
+                && !teammate.isRemoved()
+                && teammate.isAlive()
+                && reader.isOnSameTeam(teammate);
+    }
+
+    /**
+     * Gets a snapshot of the reports of the reader's team in cells overlapping a box,
+     * so readers can drop stale reports while iterating.
+     */
+    private List<Report> nearbyReports(CompanionEntity reader, AABB searchBox) {
+        Board board = boards.get(reader.getTeamId());
+        if (board == null) {
+            return List.of();
+        }
+
+        List<Report> result = new ArrayList<>();
+        AABB box = searchBox.inflate(CELL_MARGIN);
+        for (int x = cellCoord(box.minX); x <= cellCoord(box.maxX); x++) {
+            for (int z = cellCoord(box.minZ); z <= cellCoord(box.maxZ); z++) {
+                Cell cell = board.cells.get(ChunkPos.asLong(x, z));
+                if (cell != null) {
+                    result.addAll(cell.reports);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Files a report under its companion's current team and cell.
+     *
+     * @return true if the report moved
+     */
+    private boolean place(Report report) {
+        int team = report.companion.getTeamId();
+        long cell = ChunkPos.asLong(
+                SectionPos.blockToSectionCoord(report.companion.getBlockX()),
+                SectionPos.blockToSectionCoord(report.companion.getBlockZ()));
+        if (report.linked && report.team == team && report.cell == cell) {
+            return false;
+        }
+
+        unlink(report);
+        report.team = team;
+        report.cell = cell;
+        boards.computeIfAbsent(team, key -> new Board()).cells
+                .computeIfAbsent(cell, key -> new Cell()).reports.add(report);
+        report.linked = true;
+        return true;
+    }
+
+    private void unlink(Report report) {
+        if (!report.linked) {
+            return;
+        }
+        report.linked = false;
+        Board board = boards.get(report.team);
+        if (board == null) {
+            return;
+        }
+        Cell cell = board.cells.get(report.cell);
+        if (cell != null) {
+            cell.reports.remove(report);
+            if (cell.reports.isEmpty()) {
+                board.cells.remove(report.cell);
+                if (board.cells.isEmpty()) {
+                    boards.remove(report.team);
+                }
+            }
+        }
+    }
+
+    /**
+     * Raises the stamp of the report's cell, waking readers in range.
+     */
+    private void touch(Report report) {
+        Board board = boards.get(report.team);
+        Cell cell = board != null ? board.cells.get(report.cell) : null;
+        if (cell != null) {
+            cell.stamp = ++sequence;
+        }
+    }
+
+    private static int cellCoord(double blockCoord) {
+        return SectionPos.blockToSectionCoord(Mth.floor(blockCoord));
+    }
+
+    /**
+     * Reports published by one team, bucketed by chunk column.
+     */
+    private static final class Board {
+        private final Long2ObjectMap<Cell> cells = new Long2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * Reports filed in one chunk column, and the stamp of the last change to them.
+     */
+    private static final class Cell {
+        private final List<Report> reports = new ArrayList<>(4);
+        private long stamp;
+    }
+
+    /**
+     * Latest attack and engagement published by a single companion.
+     */
+    private static final class Report {
+        final CompanionEntity companion;
+        int team;
+        long cell;
+        boolean linked;
+        @Nullable
+        LivingEntity attacker;
+        long attackTick;
+        @Nullable
+        LivingEntity engaged;
+
+        Report(CompanionEntity companion) {
+            this.companion = companion;
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.payangar.immersivecompanions.entity.teleport;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.world.entity.EntityType;
-import net.minecraft.world.level.Level;
+import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.block.state.BlockState;
 
 import javax.annotation.Nullable;
@@ -32,7 +32,7 @@ public final class SafePositionFinder {
      * @return A safe position, or null if none found
      */
     @Nullable
-    public static BlockPos findSafePosition(Level level, BlockPos center, @Nullable EntityType<?> entityType) {
+    public static BlockPos findSafePosition(BlockGetter level, BlockPos center, @Nullable EntityType<?> entityType) {
         for (int attempt = 0; attempt < 16; attempt++) {
             int dx = RANDOM.nextInt(7) - 3;
             int dz = RANDOM.nextInt(7) - 3;
@@ -63,7 +63,7 @@ public final class SafePositionFinder {
      * @return A safe position, or null if none found
      */
     @Nullable
-    public static BlockPos findSafePositionExtended(Level level, BlockPos center,
+    public static BlockPos findSafePositionExtended(BlockGetter level, BlockPos center,
             @Nullable EntityType<?> entityType, int horizontalRange, int verticalRange, int attempts) {
         for (int attempt = 0; attempt < attempts; attempt++) {
             int dx = RANDOM.nextInt(horizontalRange * 2 + 1) - horizontalRange;
@@ -89,7 +89,7 @@ public final class SafePositionFinder {
      * @return A valid position, or null if none found
      */
     @Nullable
-    public static BlockPos searchVertically(Level level, BlockPos pos,
+    public static BlockPos searchVertically(BlockGetter level, BlockPos pos,
             @Nullable EntityType<?> entityType, int verticalSearchRange) {
         if (isSafe(level, pos, entityType)) {
             return pos;
@@ -120,7 +120,7 @@ public final class SafePositionFinder {
      * @param entityType The entity type to validate spawn for (can be null for basic checks)
      * @return true if the position is safe
      */
-    public static boolean isSafe(Level level, BlockPos pos, @Nullable EntityType<?> entityType) {
+    public static boolean isSafe(BlockGetter level, BlockPos pos, @Nullable EntityType<?> entityType) {
         BlockState groundState = level.getBlockState(pos.below());
 
         // Check ground is solid
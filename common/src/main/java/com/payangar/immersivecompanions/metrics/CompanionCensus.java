@@ -0,0 +1,230 @@
+package com.payangar.immersivecompanions.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.payangar.immersivecompanions.ImmersiveCompanions;
+import com.payangar.immersivecompanions.entity.combat.CombatStance;
+import com.payangar.immersivecompanions.entity.index.CompanionIndex;
+import com.payangar.immersivecompanions.entity.mode.CompanionMode;
+import com.payangar.immersivecompanions.entity.team.CompanionTeams;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.storage.LevelResource;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Snapshot of where loaded companions are, behind {@code /immersivecompanions census}.
+ *
+ * <p>Built from the counts maintained by each level's {@link CompanionIndex}, so
+ * taking a census costs time proportional to the number of occupied chunks, not the
+ * number of companions. Companions in unloaded chunks are not counted.
+ */
+public final class CompanionCensus {
+
+    /** File written to the world folder by {@link #export} */
+    public static final String EXPORT_FILE = "immersivecompanions-census.json";
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final MinecraftServer server;
+    private final Map<String, LevelCensus> levels = new LinkedHashMap<>();
+
+    private CompanionCensus(MinecraftServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Takes a census of every level.
+     *
+     * @param server The server
+     * @return The census
+     */
+    public static CompanionCensus take(MinecraftServer server) {
+        CompanionCensus census = new CompanionCensus(server);
+        CompanionTeams teams = CompanionTeams.get(server);
+        for (ServerLevel level : server.getAllLevels()) {
+            CompanionIndex index = CompanionIndex.get(level);
+            if (index.size() == 0) {
+                continue;
+            }
+
+            Map<String, Integer> byTeam = new LinkedHashMap<>();
+            for (Int2IntMap.Entry entry : sortedByCount(index.countByTeam())) {
+                String key = teams.getKey(entry.getIntKey());
+                byTeam.put(key != null ? key : "#" + entry.getIntKey(), entry.getIntValue());
+            }
+
+            Map<String, Integer> byState = new LinkedHashMap<>();
+            for (CompanionMode mode : CompanionMode.values()) {
+                for (CombatStance stance : CombatStance.values()) {
+                    int count = index.getCount(mode, stance);
+                    if (count > 0) {
+                        byState.put(mode.getId() + "/" + stance.getId(), count);
+                    }
+                }
+            }
+
+            List<Map.Entry<UUID, Integer>> byOwner = new ArrayList<>(index.countByOwner().entrySet());
+            byOwner.sort(Map.Entry.<UUID, Integer>comparingByValue().reversed());
+
+            census.levels.put(level.dimension().location().toString(), new LevelCensus(
+                    index.size(), sorted(index.countByChunk()), sorted(index.countByRegion()),
+                    byTeam, byOwner, byState));
+        }
+        return census;
+    }
+
+    // ========== Reporting ==========
+
+    /**
+     * Builds the report lines.
+     *
+     * @param topChunks Maximum densest chunks listed per level
+     * @return The report lines, without a header
+     */
+    public List<String> describe(int topChunks) {
+        List<String> lines = new ArrayList<>();
+        int total = 0;
+        for (LevelCensus level : levels.values()) {
+            total += level.total;
+        }
+        lines.add(String.format("%d companion(s) loaded in %d level(s)", total, levels.size()));
+
+        for (Map.Entry<String, LevelCensus> levelEntry : levels.entrySet()) {
+            LevelCensus level = levelEntry.getValue();
+            lines.add(String.format("%s: %d companions | %d chunks | %d regions",
+                    levelEntry.getKey(), level.total, level.chunks.size(), level.regions.size()));
+            lines.add("  Teams: " + join(level.byTeam));
+            lines.add("  Mode/stance: " + join(level.byState));
+
+            Map<String, Integer> owners = new LinkedHashMap<>();
+            for (Map.Entry<UUID, Integer> owner : level.byOwner) {
+                owners.put(ownerName(owner.getKey()), owner.getValue());
+            }
+            lines.add("  Owners: " + (owners.isEmpty() ? "none" : join(owners)));
+
+            Map<String, Integer> regions = new LinkedHashMap<>();
+            for (Long2IntMap.Entry region : level.regions) {
+                regions.put("r." + ChunkPos.getX(region.getLongKey()) + "." + ChunkPos.getZ(region.getLongKey()),
+                        region.getIntValue());
+            }
+            lines.add("  Regions: " + join(regions));
+
+            lines.add("  Densest chunks:");
+            for (Long2IntMap.Entry chunk : level.chunks.subList(0, Math.min(topChunks, level.chunks.size()))) {
+                ChunkPos pos = new ChunkPos(chunk.getLongKey());
+                lines.add(String.format("  - chunk %d, %d (blocks %d, %d) | %d companions",
+                        pos.x, pos.z, pos.getMiddleBlockX(), pos.getMiddleBlockZ(), chunk.getIntValue()));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Writes the full census, every chunk included, as JSON to {@value #EXPORT_FILE}
+     * in the world folder.
+     *
+     * @return The path written to, or null if writing failed
+     */
+    @Nullable
+    public Path export() {
+        JsonObject root = new JsonObject();
+        root.addProperty("gameTime", server.overworld().getGameTime());
+        JsonObject levelsJson = new JsonObject();
+        for (Map.Entry<String, LevelCensus> levelEntry : levels.entrySet()) {
+            LevelCensus level = levelEntry.getValue();
+            JsonObject levelJson = new JsonObject();
+            levelJson.addProperty("total", level.total);
+            levelJson.add("teams", GSON.toJsonTree(level.byTeam));
+            levelJson.add("modeStance", GSON.toJsonTree(level.byState));
+
+            JsonObject owners = new JsonObject();
+            for (Map.Entry<UUID, Integer> owner : level.byOwner) {
+                owners.addProperty(owner.getKey().toString(), owner.getValue());
+            }
+            levelJson.add("owners", owners);
+
+            JsonArray regions = new JsonArray();
+            for (Long2IntMap.Entry region : level.regions) {
+                regions.add(countJson(ChunkPos.getX(region.getLongKey()), ChunkPos.getZ(region.getLongKey()),
+                        region.getIntValue()));
+            }
+            levelJson.add("regions", regions);
+
+            JsonArray chunks = new JsonArray();
+            for (Long2IntMap.Entry chunk : level.chunks) {
+                chunks.add(countJson(ChunkPos.getX(chunk.getLongKey()), ChunkPos.getZ(chunk.getLongKey()),
+                        chunk.getIntValue()));
+            }
+            levelJson.add("chunks", chunks);
+            levelsJson.add(levelEntry.getKey(), levelJson);
+        }
+        root.add("levels", levelsJson);
+
+        Path path = server.getWorldPath(LevelResource.ROOT).resolve(EXPORT_FILE);
+        try {
+            Files.writeString(path, GSON.toJson(root));
+            return path;
+        } catch (IOException e) {
+            ImmersiveCompanions.LOGGER.error("Failed to write companion census to {}", path, e);
+            return null;
+        }
+    }
+
+    // ========== Internals ==========
+
+    private String ownerName(UUID owner) {
+        ServerPlayer player = server.getPlayerList().getPlayer(owner);
+        return player != null ? player.getGameProfile().getName() : owner.toString();
+    }
+
+    private static JsonObject countJson(int x, int z, int count) {
+        JsonObject json = new JsonObject();
+        json.addProperty("x", x);
+        json.addProperty("z", z);
+        json.addProperty("count", count);
+        return json;
+    }
+
+    private static String join(Map<String, Integer> counts) {
+        List<String> parts = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> parts.add(key + " " + count));
+        return String.join(", ", parts);
+    }
+
+    private static List<Long2IntMap.Entry> sorted(Long2IntMap counts) {
+        List<Long2IntMap.Entry> entries = new ArrayList<>(counts.long2IntEntrySet());
+        entries.sort(Comparator.comparingInt(Long2IntMap.Entry::getIntValue).reversed());
+        return entries;
+    }
+
+    private static List<Int2IntMap.Entry> sortedByCount(Int2IntMap counts) {
+        List<Int2IntMap.Entry> entries = new ArrayList<>(counts.int2IntEntrySet());
+        entries.sort(Comparator.comparingInt(Int2IntMap.Entry::getIntValue).reversed());
+        return entries;
+    }
+
+    /**
+     * Counts for one level, each list sorted by descending count.
+     */
+    private record LevelCensus(int total, List<Long2IntMap.Entry> chunks, List<Long2IntMap.Entry> regions,
+                               Map<String, Integer> byTeam, List<Map.Entry<UUID, Integer>> byOwner,
+                               Map<String, Integer> byState) {
+    }
+}
@@ -0,0 +1,227 @@
+package com.payangar.immersivecompanions.metrics;
+
+import com.payangar.immersivecompanions.ImmersiveCompanions;
+import com.payangar.immersivecompanions.entity.index.CompanionIndex;
+import com.payangar.immersivecompanions.entity.projectile.CompanionProjectiles;
+import com.payangar.immersivecompanions.entity.team.CompanionTeams;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import net.minecraft.server.level.ServerLevel;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters and gauges for companion subsystems, exposed over JMX so they can be
+ * scraped without attaching a profiler.
+ *
+ * <p>Counters are {@link LongAdder}s bumped on the hot paths; an increment is a few
+ * nanoseconds and never contends with the JMX reader. Gauges (loaded companions, arrows
+ * alive) are read from the per-level services, which are only safe to touch on the
+ * server thread, so each level publishes an immutable sample once per
+ * {@link #SAMPLE_INTERVAL} ticks and JMX reads the latest samples.
+ */
+public final class CompanionMetrics implements CompanionMetricsMXBean {
+
+    public static final String OBJECT_NAME = ImmersiveCompanions.MOD_ID + ":type=Companions";
+
+    /** Ticks between gauge samples */
+    private static final int SAMPLE_INTERVAL = 20;
+
+    private static final CompanionMetrics INSTANCE = new CompanionMetrics();
+
+    /** Latest gauge sample per level ID, written on the server thread */
+    private static final Map<String, LevelSample> SAMPLES = new ConcurrentHashMap<>();
+
+    /**
+     * Counters bumped by companion logic.
+     */
+    public enum Counter {
+        ENTITY_SCANS,
+        PATHS_REQUESTED,
+        PATHS_FAILED,
+        TELEPORTS,
+        SAFE_POSITION_FAILURES,
+        SPAWNS_ATTEMPTED,
+        SPAWNS_SUCCEEDED,
+        GOSSIP_WRITES,
+        COMPANION_HURTS;
+
+        private final LongAdder adder = new LongAdder();
+
+        public void increment() {
+            adder.increment();
+        }
+
+        public long get() {
+            return adder.sum();
+        }
+    }
+
+    private CompanionMetrics() {
+    }
+
+    // ========== Lifecycle ==========
+
+    /**
+     * Registers the metrics with the platform MBean server. Failure is logged and
+     * otherwise ignored, since metrics are never required for the mod to run.
+     */
+    public static void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException | SecurityException e) {
+            ImmersiveCompanions.LOGGER.warn("Failed to register JMX metrics", e);
+        }
+    }
+
+    /**
+     * Publishes a gauge sample for a level if one is due. Call at the end of every level tick.
+     *
+     * @param level The server level
+     */
+    public static void tick(ServerLevel level) {
+        if (level.getGameTime() % SAMPLE_INTERVAL != 0) {
+            return;
+        }
+
+        CompanionIndex index = CompanionIndex.get(level);
+        // Resolve team IDs here, since the team registry is only safe to read on the server thread
+        CompanionTeams teams = CompanionTeams.get(level.getServer());
+        Map<String, Integer> byTeam = new HashMap<>();
+        for (Int2IntMap.Entry entry : index.countByTeam().int2IntEntrySet()) {
+            String key = teams.getKey(entry.getIntKey());
+            byTeam.merge(key != null ? key : "#" + entry.getIntKey(), entry.getIntValue(), Integer::sum);
+        }
+
+        SAMPLES.put(level.dimension().location().toString(), new LevelSample(
+                index.size(),
+                Map.copyOf(byTeam),
+                Map.copyOf(index.countByOwner()),
+                CompanionProjectiles.get(level).getTrackedCount()));
+    }
+
+    /**
+     * Clears all gauge samples. Counters keep running. Call on server stop.
+     */
+    public static void clearAll() {
+        SAMPLES.clear();
+    }
+
+    // ========== Counters ==========
+
+    @Override
+    public long getEntityScans() {
+        return Counter.ENTITY_SCANS.get();
+    }
+
+    @Override
+    public long getPathsRequested() {
+        return Counter.PATHS_REQUESTED.get();
+    }
+
+    @Override
+    public long getPathsFailed() {
+        return Counter.PATHS_FAILED.get();
+    }
+
+    @Override
+    public long getTeleports() {
+        return Counter.TELEPORTS.get();
+    }
+
+    @Override
+    public long getSafePositionFailures() {
+        return Counter.SAFE_POSITION_FAILURES.get();
+    }
+
+    @Override
+    public long getSpawnsAttempted() {
+        return Counter.SPAWNS_ATTEMPTED.get();
+    }
+
+    @Override
+    public long getSpawnsSucceeded() {
+        return Counter.SPAWNS_SUCCEEDED.get();
+    }
+
+    @Override
+    public long getGossipWrites() {
+        return Counter.GOSSIP_WRITES.get();
+    }
+
+    @Override
+    public long getCompanionHurts() {
+        return Counter.COMPANION_HURTS.get();
+    }
+
+    // ========== Gauges ==========
+
+    @Override
+    public int getLoadedCompanions() {
+        int total = 0;
+        for (LevelSample sample : SAMPLES.values()) {
+            total += sample.companions();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Integer> getLoadedCompanionsByLevel() {
+        Map<String, Integer> result = new TreeMap<>();
+        SAMPLES.forEach((level, sample) -> result.put(level, sample.companions()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Integer> getLoadedCompanionsByTeam() {
+        Map<String, Integer> result = new TreeMap<>();
+        for (LevelSample sample : SAMPLES.values()) {
+            sample.byTeam().forEach((team, count) -> result.merge(team, count, Integer::sum));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Integer> getLoadedCompanionsByOwner() {
+        Map<String, Integer> result = new HashMap<>();
+        for (LevelSample sample : SAMPLES.values()) {
+            sample.byOwner().forEach((owner, count) -> result.merge(owner.toString(), count, Integer::sum));
+        }
+        return result;
+    }
+
+    @Override
+    public int getArrowsAlive() {
+        int total = 0;
+        for (LevelSample sample : SAMPLES.values()) {
+            total += sample.arrows();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Integer> getArrowsAliveByLevel() {
+        Map<String, Integer> result = new TreeMap<>();
+        SAMPLES.forEach((level, sample) -> result.put(level, sample.arrows()));
+        return result;
+    }
+
+    /**
+     * Gauge values of one level at the time of sampling.
+     */
+    private record LevelSample(int companions, Map<String, Integer> byTeam, Map<UUID, Integer> byOwner,
+                               int arrows) {
+    }
+}
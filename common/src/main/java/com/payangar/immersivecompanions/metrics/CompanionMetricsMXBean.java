@@ -0,0 +1,62 @@
+package com.payangar.immersivecompanions.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the companion metrics, registered as
+ * {@value CompanionMetrics#OBJECT_NAME}.
+ *
+ * <p>Counters are totals since JVM start and only ever increase. Gauges are sampled
+ * once per second on the server thread, so they may lag by up to a second.
+ */
+public interface CompanionMetricsMXBean {
+
+    // ========== Counters ==========
+
+    /** World entity scans ({@code getEntitiesOfClass} and friends) run by companion logic */
+    long getEntityScans();
+
+    /** Paths requested by companion navigation */
+    long getPathsRequested();
+
+    /** Path requests that produced no path */
+    long getPathsFailed();
+
+    /** Companions teleported to their owner */
+    long getTeleports();
+
+    /** Safe-position searches for a teleport that found no position */
+    long getSafePositionFailures();
+
+    /** Companions the village spawner tried to create */
+    long getSpawnsAttempted();
+
+    /** Companions the village spawner added to the world */
+    long getSpawnsSucceeded();
+
+    /** Gossip entries written to villagers by companion logic */
+    long getGossipWrites();
+
+    /** Damage events received by companions */
+    long getCompanionHurts();
+
+    // ========== Gauges ==========
+
+    /** Loaded companions across all levels */
+    int getLoadedCompanions();
+
+    /** Loaded companions by level ID */
+    Map<String, Integer> getLoadedCompanionsByLevel();
+
+    /** Loaded companions by team key, across all levels */
+    Map<String, Integer> getLoadedCompanionsByTeam();
+
+    /** Loaded owned companions by owner UUID, across all levels */
+    Map<String, Integer> getLoadedCompanionsByOwner();
+
+    /** Companion arrows alive across all levels */
+    int getArrowsAlive();
+
+    /** Companion arrows alive by level ID */
+    Map<String, Integer> getArrowsAliveByLevel();
+}
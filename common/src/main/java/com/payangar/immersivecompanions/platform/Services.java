@@ -1,8 +1,11 @@
 package com.payangar.immersivecompanions.platform;
 
+import com.mojang.authlib.GameProfile;
 import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.MenuProvider;
+import net.minecraft.world.entity.projectile.AbstractArrow;
 
 import java.nio.file.Path;
 import java.util.function.Consumer;
@@ -23,6 +26,25 @@ public interface Services {
      */
     void openMenu(ServerPlayer player, MenuProvider menuProvider, Consumer<RegistryFriendlyByteBuf> dataWriter);
 
+    /**
+     * Gets the platform's fake player for a profile in a level, creating it if needed.
+     * The fake player is not added to the level.
+     *
+     * @param level   The level the fake player acts in
+     * @param profile The fake player's profile
+     * @return The fake player
+     */
+    ServerPlayer getFakePlayer(ServerLevel level, GameProfile profile);
+
+    /**
+     * Checks if an arrow is stuck in a block.
+     * Vanilla keeps this in a protected field, so each platform exposes it its own way.
+     *
+     * @param arrow The arrow
+     * @return true if the arrow is in the ground
+     */
+    boolean isInGround(AbstractArrow arrow);
+
     static Services get() {
         return Holder.INSTANCE;
     }
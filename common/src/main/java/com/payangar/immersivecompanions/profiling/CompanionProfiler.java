@@ -0,0 +1,251 @@
+package com.payangar.immersivecompanions.profiling;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sampling profiler for companion AI, driven by {@code /immersivecompanions profile}.
+ *
+ * <p>Off by default. While it is off, {@link #start} returns a sentinel and
+ * {@link #stop} returns immediately, so instrumented code pays a static field read per
+ * call. While on, each call is timed with {@link System#nanoTime()} and aggregated per
+ * level and per section (a goal's {@code canUse}/{@code tick}, the companion tick,
+ * gap jumps, safe-position searches and path requests). Time spent in outermost
+ * sections is also charged to the companion that spent it; nested sections (goals run
+ * inside the companion tick) are not charged twice.
+ *
+ * <p>Percentiles come from a log-scale histogram with four buckets per power of two,
+ * so a reported p99 overstates the true value by at most 25%. All recording happens on
+ * the server thread.
+ */
+public final class CompanionProfiler {
+
+    // ========== Sections ==========
+
+    public static final String COMPANION_TICK = "CompanionEntity#tick";
+    public static final String GAP_JUMP = "GapJumpHelper";
+    public static final String SAFE_POSITION = "SafePositionFinder";
+    public static final String PATHFINDING = "CompanionGroundPathNavigation#createPath";
+
+    /** Value returned by {@link #start} while the profiler is off */
+    private static final long NOT_SAMPLING = Long.MIN_VALUE;
+    /** Sub-buckets per power of two in the duration histogram */
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int BUCKET_COUNT = 64 << SUB_BUCKET_BITS;
+
+    private static boolean enabled;
+    private static long startedAt;
+    private static long stoppedAt;
+    /** Number of sections currently being timed, to charge companions for outermost sections only */
+    private static int depth;
+    private static final Map<ResourceKey<Level>, LevelProfile> PROFILES = new LinkedHashMap<>();
+
+    private CompanionProfiler() {
+    }
+
+    // ========== Control ==========
+
+    /**
+     * Clears previous results and starts sampling.
+     */
+    public static void enable() {
+        PROFILES.clear();
+        startedAt = System.nanoTime();
+        stoppedAt = 0L;
+        depth = 0;
+        enabled = true;
+    }
+
+    /**
+     * Stops sampling, keeping the results for {@link #report}.
+     */
+    public static void disable() {
+        if (enabled) {
+            stoppedAt = System.nanoTime();
+        }
+        enabled = false;
+    }
+
+    /**
+     * Stops sampling and clears all results. Call on server stop.
+     */
+    public static void clearAll() {
+        enabled = false;
+        PROFILES.clear();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // ========== Sampling ==========
+
+    /**
+     * Starts timing a section. Client-side entities are never sampled.
+     *
+     * @param entity The companion about to spend the time
+     * @return A start timestamp to pass to {@link #stop}
+     */
+    public static long start(Entity entity) {
+        if (!enabled || entity.level().isClientSide) {
+            return NOT_SAMPLING;
+        }
+        depth++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Finishes timing a section and records it against the entity's level and the entity.
+     *
+     * @param entity  The companion that spent the time
+     * @param section The section name
+     * @param start   The timestamp returned by {@link #start}
+     */
+    public static void stop(Entity entity, String section, long start) {
+        if (start == NOT_SAMPLING || !enabled) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        boolean outermost = --depth <= 0;
+        if (outermost) {
+            depth = 0;
+        }
+        if (!(entity.level() instanceof ServerLevel level)) {
+            return;
+        }
+
+        LevelProfile profile = PROFILES.computeIfAbsent(level.dimension(), key -> new LevelProfile());
+        profile.sections.computeIfAbsent(section, key -> new SectionStats()).record(nanos);
+        if (outermost) {
+            profile.entities.computeIfAbsent(entity.getUUID(), key -> new EntityStats()).record(entity, nanos);
+        }
+    }
+
+    // ========== Reporting ==========
+
+    /**
+     * Builds the report lines for every profiled level.
+     *
+     * @param topSections  Maximum sections listed per level
+     * @param topCompanions Maximum companions listed per level
+     * @return The report lines, without a header
+     */
+    public static List<String> report(int topSections, int topCompanions) {
+        List<String> lines = new ArrayList<>();
+        long end = enabled ? System.nanoTime() : stoppedAt;
+        lines.add(String.format("Sampled %.1f s%s", (end - startedAt) / 1.0e9, enabled ? " (running)" : ""));
+        if (PROFILES.isEmpty()) {
+            lines.add("No samples recorded.");
+            return lines;
+        }
+
+        for (Map.Entry<ResourceKey<Level>, LevelProfile> levelEntry : PROFILES.entrySet()) {
+            LevelProfile profile = levelEntry.getValue();
+            lines.add(levelEntry.getKey().location().toString() + ":");
+
+            List<Map.Entry<String, SectionStats>> sections = new ArrayList<>(profile.sections.entrySet());
+            sections.sort(Comparator.comparingLong((Map.Entry<String, SectionStats> e) -> e.getValue().totalNanos).reversed());
+            for (Map.Entry<String, SectionStats> entry : sections.subList(0, Math.min(topSections, sections.size()))) {
+                SectionStats stats = entry.getValue();
+                lines.add(String.format("  - %s | %d calls | %.2f ms total | %.1f us mean | %.1f us p99",
+                        entry.getKey(), stats.count, stats.totalNanos / 1.0e6,
+                        stats.totalNanos / 1.0e3 / stats.count, stats.percentile(0.99) / 1.0e3));
+            }
+
+            List<Map.Entry<UUID, EntityStats>> entities = new ArrayList<>(profile.entities.entrySet());
+            entities.sort(Comparator.comparingLong((Map.Entry<UUID, EntityStats> e) -> e.getValue().totalNanos).reversed());
+            lines.add("  Top companions:");
+            for (Map.Entry<UUID, EntityStats> entry : entities.subList(0, Math.min(topCompanions, entities.size()))) {
+                EntityStats stats = entry.getValue();
+                lines.add(String.format("  - %s at %.0f %.0f %.0f | %.2f ms total",
+                        entry.getKey(), stats.x, stats.y, stats.z, stats.totalNanos / 1.0e6));
+            }
+        }
+        return lines;
+    }
+
+    // ========== Internals ==========
+
+    private static int bucket(long nanos) {
+        if (nanos < (1L << SUB_BUCKET_BITS)) {
+            return (int) Math.max(nanos, 0L);
+        }
+        int log2 = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (log2 - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+        return Math.min((log2 << SUB_BUCKET_BITS) | sub, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Upper bound, in nanoseconds, of the durations falling into a bucket.
+     */
+    private static long bucketUpperBound(int bucket) {
+        int log2 = bucket >>> SUB_BUCKET_BITS;
+        if (log2 < SUB_BUCKET_BITS) {
+            return bucket;
+        }
+        int sub = bucket & ((1 << SUB_BUCKET_BITS) - 1);
+        return (((1L << SUB_BUCKET_BITS) | sub) + 1) << (log2 - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * Samples recorded in one level.
+     */
+    private static final class LevelProfile {
+        private final Map<String, SectionStats> sections = new HashMap<>();
+        private final Map<UUID, EntityStats> entities = new HashMap<>();
+    }
+
+    /**
+     * Call count, total time and duration histogram of one section.
+     */
+    private static final class SectionStats {
+        private final long[] histogram = new long[BUCKET_COUNT];
+        private long count;
+        private long totalNanos;
+
+        void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            histogram[bucket(nanos)]++;
+        }
+
+        long percentile(double fraction) {
+            long rank = (long) Math.ceil(count * fraction);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= rank) {
+                    return bucketUpperBound(i);
+                }
+            }
+            return 0L;
+        }
+    }
+
+    /**
+     * Total time charged to one entity, and where it was last seen.
+     */
+    private static final class EntityStats {
+        private long totalNanos;
+        private double x;
+        private double y;
+        private double z;
+
+        void record(Entity entity, long nanos) {
+            totalNanos += nanos;
+            x = entity.getX();
+            y = entity.getY();
+            z = entity.getZ();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.payangar.immersivecompanions.profiling;
+
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.ai.goal.Goal;
+
+/**
+ * Goal wrapper that times the wrapped goal's {@code canUse}, {@code canContinueToUse}
+ * and {@code tick} with the {@link CompanionProfiler}, under the goal's class name.
+ * Everything else is delegated unchanged, including the control flags.
+ */
+public class ProfiledGoal extends Goal {
+
+    private final Mob mob;
+    private final Goal goal;
+    private final String canUseSection;
+    private final String canContinueSection;
+    private final String tickSection;
+
+    public ProfiledGoal(Mob mob, Goal goal) {
+        this.mob = mob;
+        this.goal = goal;
+        String name = goal.getClass().getSimpleName();
+        this.canUseSection = name + "#canUse";
+        this.canContinueSection = name + "#canContinueToUse";
+        this.tickSection = name + "#tick";
+        setFlags(goal.getFlags());
+    }
+
+    /**
+     * Gets the wrapped goal.
+     */
+    public Goal getGoal() {
+        return goal;
+    }
+
+    @Override
+    public boolean canUse() {
+        long start = CompanionProfiler.start(mob);
+        try {
+            return goal.canUse();
+        } finally {
+            CompanionProfiler.stop(mob, canUseSection, start);
+        }
+    }
+
+    @Override
+    public boolean canContinueToUse() {
+        long start = CompanionProfiler.start(mob);
+        try {
+            return goal.canContinueToUse();
+        } finally {
+            CompanionProfiler.stop(mob, canContinueSection, start);
+        }
+    }
+
+    @Override
+    public boolean isInterruptable() {
+        return goal.isInterruptable();
+    }
+
+    @Override
+    public void start() {
+        goal.start();
+    }
+
+    @Override
+    public void stop() {
+        goal.stop();
+    }
+
+    @Override
+    public boolean requiresUpdateEveryTick() {
+        return goal.requiresUpdateEveryTick();
+    }
+
+    @Override
+    public void tick() {
+        long start = CompanionProfiler.start(mob);
+        try {
+            goal.tick();
+        } finally {
+            CompanionProfiler.stop(mob, tickSection, start);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return goal.toString();
+    }
+}
@@ -1,19 +1,18 @@
 package com.payangar.immersivecompanions.recruitment;
 
 import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.village.VillageReputation;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.entity.EquipmentSlot;
 import net.minecraft.world.entity.ai.gossip.GossipType;
 import net.minecraft.world.entity.npc.Villager;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
-import net.minecraft.world.phys.AABB;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.UUID;
 
 /**
  * Handles price calculation for companion recruitment.
@@ -58,7 +57,6 @@ public class CompanionPricing {
     // Reputation thresholds
     private static final double MAX_DISCOUNT = 0.30; // 30% discount for good rep
     private static final double MAX_MARKUP = 0.50;   // 50% markup for bad rep
-    private static final double SEARCH_RANGE = 16.0;
 
     /**
      * Calculates the base price for a companion (before reputation modifier).
@@ -68,12 +66,24 @@ public class CompanionPricing {
      * @return Base price including equipment bonuses
      */
     public static int calculateBasePrice(CompanionEntity companion) {
+        return calculateBasePrice(companion.getUUID(), companion.getArmorSlots(), companion.getMainHandItem());
+    }
+
+    /**
+     * Calculates the base price for a companion's UUID and gear.
+     *
+     * @param uuid   The companion's UUID, used as the price seed
+     * @param armor  The companion's armor stacks
+     * @param weapon The companion's main hand stack
+     * @return Base price including equipment bonuses
+     */
+    public static int calculateBasePrice(UUID uuid, Iterable<ItemStack> armor, ItemStack weapon) {
         // Seed random with UUID for consistent pricing
-        Random random = new Random(companion.getUUID().getLeastSignificantBits());
+        Random random = new Random(uuid.getLeastSignificantBits());
         int basePrice = BASE_PRICE_MIN + random.nextInt(BASE_PRICE_MAX - BASE_PRICE_MIN + 1);
 
         // Add equipment bonuses
-        basePrice += getEquipmentBonus(companion);
+        basePrice += getEquipmentBonus(armor, weapon);
 
         return basePrice;
     }
@@ -99,17 +109,25 @@ public class CompanionPricing {
      * @return Total equipment bonus in emeralds
      */
     public static int getEquipmentBonus(CompanionEntity companion) {
+        return getEquipmentBonus(companion.getArmorSlots(), companion.getMainHandItem());
+    }
+
+    /**
+     * Gets the equipment bonus for a set of gear.
+     *
+     * @param armor  The armor stacks
+     * @param weapon The main hand stack
+     * @return Total equipment bonus in emeralds
+     */
+    public static int getEquipmentBonus(Iterable<ItemStack> armor, ItemStack weapon) {
         int bonus = 0;
 
         // Check armor slots
-        for (EquipmentSlot slot : new EquipmentSlot[]{
-                EquipmentSlot.HEAD, EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET}) {
-            ItemStack armor = companion.getItemBySlot(slot);
-            bonus += ARMOR_BONUSES.getOrDefault(armor.getItem(), 0);
+        for (ItemStack stack : armor) {
+            bonus += ARMOR_BONUSES.getOrDefault(stack.getItem(), 0);
         }
 
         // Check weapon
-        ItemStack weapon = companion.getMainHandItem();
         bonus += WEAPON_BONUSES.getOrDefault(weapon.getItem(), 0);
 
         return bonus;
@@ -117,6 +135,7 @@ public class CompanionPricing {
 
     /**
      * Calculates the reputation modifier based on nearby villagers' opinion of the player.
+     * Reads the cached reputation totals of the companion's village area.
      *
      * @param companion The companion entity (used for location)
      * @param player    The player to check reputation for
@@ -127,19 +146,12 @@ public class CompanionPricing {
             return 1.0;
         }
 
-        AABB searchBox = companion.getBoundingBox().inflate(SEARCH_RANGE);
-        List<Villager> nearbyVillagers = serverLevel.getEntitiesOfClass(Villager.class, searchBox);
-
-        if (nearbyVillagers.isEmpty()) {
+        VillageReputation.Area village = VillageReputation.get(serverLevel).getArea(companion);
+        if (village.getVillagerCount() == 0) {
             return 1.0;
         }
 
-        // Calculate average reputation
-        int totalReputation = 0;
-        for (Villager villager : nearbyVillagers) {
-            totalReputation += getPlayerReputation(villager, player);
-        }
-        double avgReputation = (double) totalReputation / nearbyVillagers.size();
+        double avgReputation = village.getAverageReputation(player.getUUID());
 
         // Convert reputation to modifier
         if (avgReputation > 0) {
@@ -164,14 +176,26 @@ public class CompanionPricing {
      * @return Reputation score (positive = good, negative = bad)
      */
     public static int getPlayerReputation(Villager villager, Player player) {
+        return getPlayerReputation(villager, player.getUUID());
+    }
+
+    /**
+     * Gets a player's reputation with a specific villager by UUID.
+     * Used by {@link VillageReputation} to total reputation for players who may be offline.
+     *
+     * @param villager   The villager to check
+     * @param playerUUID The UUID of the player to check reputation for
+     * @return Reputation score (positive = good, negative = bad)
+     */
+    public static int getPlayerReputation(Villager villager, UUID playerUUID) {
         int reputation = 0;
 
         // Negative gossip types reduce reputation
-        reputation -= villager.getGossips().getReputation(player.getUUID(), gossipType ->
+        reputation -= villager.getGossips().getReputation(playerUUID, gossipType ->
                 gossipType == GossipType.MINOR_NEGATIVE || gossipType == GossipType.MAJOR_NEGATIVE);
 
         // Positive gossip types increase reputation
-        reputation += villager.getGossips().getReputation(player.getUUID(), gossipType ->
+        reputation += villager.getGossips().getReputation(playerUUID, gossipType ->
                 gossipType == GossipType.MINOR_POSITIVE || gossipType == GossipType.MAJOR_POSITIVE ||
                         gossipType == GossipType.TRADING);
 
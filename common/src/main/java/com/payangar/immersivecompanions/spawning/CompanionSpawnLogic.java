@@ -1,30 +1,43 @@
 package com.payangar.immersivecompanions.spawning;
 
 import com.payangar.immersivecompanions.ImmersiveCompanions;
+import com.payangar.immersivecompanions.config.ModConfig;
 import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.entity.index.CompanionIndex;
+import com.payangar.immersivecompanions.metrics.CompanionMetrics;
 import com.payangar.immersivecompanions.registry.ModEntityTypes;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.entity.MobSpawnType;
 import net.minecraft.world.entity.npc.Villager;
 import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.phys.AABB;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Handles companion spawning logic in villages.
- * Spawn chance scales with villager count.
+ * Spawn chance scales with villager count, and spawns are capped per region and per
+ * level using the counts maintained by {@link CompanionIndex}.
  */
 public class CompanionSpawnLogic {
 
     private static final Set<ChunkPos> processedChunks = new HashSet<>();
+    /** Village centers deferred because their region or level was at its cap, per level */
+    private static final Map<ResourceKey<Level>, Set<BlockPos>> deferredVillages = new HashMap<>();
+    /** Ticks between retries of deferred villages */
+    private static final int DEFERRED_RETRY_INTERVAL = 1200;
     private static final int SEARCH_RADIUS = 64;
     private static final int SPAWN_RADIUS = 32;
 
@@ -65,6 +78,8 @@ public class CompanionSpawnLogic {
     /**
      * Attempts to spawn companions in a village area.
      * Call this when a village structure is detected.
+     * If the village's region or level is at its companion cap, the village is queued
+     * and retried by {@link #tickDeferred} until there is room.
      *
      * @param level     The server level
      * @param centerPos The approximate center of the village
@@ -76,10 +91,28 @@ public class CompanionSpawnLogic {
         if (processedChunks.contains(chunkPos)) {
             return;
         }
+        spawnInVillage(level, centerPos, chunkPos);
+    }
+
+    /**
+     * Spawns companions in a village that has not been processed yet, or queues it while
+     * the population caps are reached.
+     */
+    private static void spawnInVillage(ServerLevel level, BlockPos centerPos, ChunkPos chunkPos) {
+        // Defer while the region or level is over budget
+        CompanionIndex index = CompanionIndex.get(level);
+        int budget = remainingBudget(index, chunkPos);
+        if (budget <= 0) {
+            ImmersiveCompanions.LOGGER.debug("Deferred companion spawning in village at {}: population cap reached",
+                    centerPos);
+            deferredVillages.computeIfAbsent(level.dimension(), key -> new HashSet<>()).add(centerPos);
+            return;
+        }
         processedChunks.add(chunkPos);
 
         // Count villagers in the area
         AABB searchBox = new AABB(centerPos).inflate(SEARCH_RADIUS);
+        CompanionMetrics.Counter.ENTITY_SCANS.increment();
         List<Villager> villagers = level.getEntitiesOfClass(Villager.class, searchBox);
         int villagerCount = villagers.size();
 
@@ -88,14 +121,13 @@ public class CompanionSpawnLogic {
         }
 
         // Check if companions already exist in this area
-        List<CompanionEntity> existingCompanions = level.getEntitiesOfClass(CompanionEntity.class, searchBox);
-        if (!existingCompanions.isEmpty()) {
+        if (index.hasCompanionsNear(searchBox)) {
             return;
         }
 
-        // Determine spawn count
+        // Determine spawn count, within the remaining budget
         RandomSource random = level.getRandom();
-        int spawnCount = determineSpawnCount(villagerCount, random);
+        int spawnCount = Math.min(determineSpawnCount(villagerCount, random), budget);
 
         if (spawnCount == 0) {
             return;
@@ -105,7 +137,7 @@ public class CompanionSpawnLogic {
         for (int i = 0; i < spawnCount; i++) {
             BlockPos spawnPos = findValidSpawnPosition(level, centerPos, random);
             if (spawnPos != null) {
-                spawnCompanion(level, spawnPos);
+                spawnCompanion(level, spawnPos, centerPos);
             }
         }
 
@@ -113,6 +145,59 @@ public class CompanionSpawnLogic {
                 spawnCount, centerPos, villagerCount);
     }
 
+    /**
+     * Retries villages deferred by the population caps once there is room. Only villages
+     * whose entities are loaded are retried. Call at the end of every level tick.
+     *
+     * @param level The server level
+     */
+    public static void tickDeferred(ServerLevel level) {
+        if (level.getGameTime() % DEFERRED_RETRY_INTERVAL != 0) {
+            return;
+        }
+        Set<BlockPos> deferred = deferredVillages.get(level.dimension());
+        if (deferred == null || deferred.isEmpty()) {
+            return;
+        }
+
+        // Villages still over budget are queued again. The processed check is skipped, since
+        // the Fabric structure hook marks the chunks it sees as processed before a village spawns;
+        // the nearby companion check still prevents spawning twice
+        List<BlockPos> ready = new ArrayList<>();
+        for (BlockPos center : deferred) {
+            if (level.areEntitiesLoaded(ChunkPos.asLong(center))) {
+                ready.add(center);
+            }
+        }
+        deferred.removeAll(ready);
+        for (BlockPos center : ready) {
+            spawnInVillage(level, center, new ChunkPos(center));
+        }
+    }
+
+    /**
+     * Gets how many more companions may spawn in a chunk's region and level.
+     * Only village companions count against the caps, so player followers and
+     * companions of other teams never block natural spawns.
+     *
+     * @param index    The level's companion index
+     * @param chunkPos The chunk to spawn in
+     * @return The number of companions that may still spawn, or {@link Integer#MAX_VALUE} if uncapped
+     */
+    private static int remainingBudget(CompanionIndex index, ChunkPos chunkPos) {
+        int budget = Integer.MAX_VALUE;
+        int regionCap = ModConfig.get().getMaxVillageCompanionsPerRegion();
+        if (regionCap > 0) {
+            budget = regionCap - index.getVillageRegionCount(
+                    chunkPos.x >> CompanionIndex.REGION_SHIFT, chunkPos.z >> CompanionIndex.REGION_SHIFT);
+        }
+        int levelCap = ModConfig.get().getMaxVillageCompanionsPerLevel();
+        if (levelCap > 0) {
+            budget = Math.min(budget, levelCap - index.getVillageCount());
+        }
+        return budget;
+    }
+
     /**
      * Finds a valid spawn position within the village area.
      */
@@ -136,14 +221,18 @@ public class CompanionSpawnLogic {
     }
 
     /**
-     * Spawns a companion at the specified position.
+     * Spawns a companion at the specified position, bound to the village it guards.
      */
-    private static void spawnCompanion(ServerLevel level, BlockPos pos) {
+    private static void spawnCompanion(ServerLevel level, BlockPos pos, BlockPos village) {
+        CompanionMetrics.Counter.SPAWNS_ATTEMPTED.increment();
         CompanionEntity companion = ModEntityTypes.getCompanion().create(level);
         if (companion != null) {
             companion.moveTo(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5, level.getRandom().nextFloat() * 360f, 0f);
             companion.finalizeSpawn(level, level.getCurrentDifficultyAt(pos), MobSpawnType.STRUCTURE, null);
-            level.addFreshEntity(companion);
+            companion.setHomeVillage(village);
+            if (level.addFreshEntity(companion)) {
+                CompanionMetrics.Counter.SPAWNS_SUCCEEDED.increment();
+            }
         }
     }
 
@@ -152,6 +241,7 @@ public class CompanionSpawnLogic {
      */
     public static void clearTrackedChunks() {
         processedChunks.clear();
+        deferredVillages.clear();
     }
 
     /**
@@ -0,0 +1,88 @@
+package com.payangar.immersivecompanions.stress;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.payangar.immersivecompanions.ImmersiveCompanions;
+import com.payangar.immersivecompanions.platform.Services;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stored scenario baselines, kept in immersivecompanions-stress-baseline.json in the
+ * config directory so they can be committed alongside a server's config.
+ *
+ * <p>The file carries a format version. Baselines of an older version were measured
+ * under different conditions and are ignored, so they fail until re-recorded.
+ */
+public final class ScenarioBaseline {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String FILE_NAME = "immersivecompanions-stress-baseline.json";
+    private static final Type TYPE = new TypeToken<TreeMap<String, ScenarioResult>>() {}.getType();
+    /**
+     * Version of the stored baselines. Version 2 measures scenario companions with their
+     * AI pinned to full detail; earlier baselines measured them mostly dormant.
+     */
+    private static final int VERSION = 2;
+
+    private ScenarioBaseline() {
+    }
+
+    /**
+     * Loads the stored baselines by scenario ID.
+     *
+     * @return The baselines, empty if none are stored or the file is unreadable
+     */
+    public static Map<String, ScenarioResult> load() {
+        Path path = getPath();
+        if (!Files.exists(path)) {
+            return new TreeMap<>();
+        }
+        try {
+            JsonObject root = GSON.fromJson(Files.readString(path), JsonObject.class);
+            int version = root != null && root.has("version") ? root.get("version").getAsInt() : 1;
+            if (version != VERSION) {
+                ImmersiveCompanions.LOGGER.warn("Ignoring stress baselines in {} from version {}; re-record them",
+                        path, version);
+                return new TreeMap<>();
+            }
+            Map<String, ScenarioResult> baselines = GSON.fromJson(root.get("baselines"), TYPE);
+            return baselines != null ? baselines : new TreeMap<>();
+        } catch (IOException | JsonParseException e) {
+            ImmersiveCompanions.LOGGER.error("Failed to load stress baselines from {}", path, e);
+            return new TreeMap<>();
+        }
+    }
+
+    /**
+     * Saves baselines, replacing the stored baselines of the same scenarios.
+     *
+     * @param results The results to store, by scenario ID
+     */
+    public static void save(Map<String, ScenarioResult> results) {
+        Map<String, ScenarioResult> baselines = load();
+        baselines.putAll(results);
+        Path path = getPath();
+        try {
+            Files.createDirectories(path.getParent());
+            JsonObject root = new JsonObject();
+            root.addProperty("version", VERSION);
+            root.add("baselines", GSON.toJsonTree(baselines, TYPE));
+            Files.writeString(path, GSON.toJson(root));
+        } catch (IOException e) {
+            ImmersiveCompanions.LOGGER.error("Failed to save stress baselines to {}", path, e);
+        }
+    }
+
+    private static Path getPath() {
+        return Services.get().getConfigDir().resolve(FILE_NAME);
+    }
+}
@@ -0,0 +1,35 @@
+package com.payangar.immersivecompanions.stress;
+
+/**
+ * Measurements of one scenario run.
+ *
+ * @param avgMspt      Average server tick time during measurement, in milliseconds
+ * @param p99Mspt      99th percentile server tick time, in milliseconds
+ * @param companions   Loaded companions in the scenario's level at the end
+ * @param entities     Loaded entities in the scenario's level at the end
+ * @param pathRequests Companion path requests during measurement
+ */
+public record ScenarioResult(double avgMspt, double p99Mspt, int companions, int entities, long pathRequests) {
+
+    /** Allowed relative regression over a baseline before a run fails */
+    private static final double TOLERANCE = 0.20;
+    /** Allowed absolute tick-time regression, so near-idle baselines don't fail on noise */
+    private static final double MSPT_SLACK = 0.5;
+
+    /**
+     * Checks this run against a baseline.
+     *
+     * @param baseline The stored baseline
+     * @return true if no measurement regressed beyond the tolerance
+     */
+    public boolean isWithin(ScenarioResult baseline) {
+        return avgMspt <= baseline.avgMspt * (1 + TOLERANCE) + MSPT_SLACK
+                && p99Mspt <= baseline.p99Mspt * (1 + TOLERANCE) + MSPT_SLACK
+                && pathRequests <= baseline.pathRequests * (1 + TOLERANCE);
+    }
+
+    public String describe() {
+        return String.format("%.2f ms avg | %.2f ms p99 | %d companions | %d entities | %d path requests",
+                avgMspt, p99Mspt, companions, entities, pathRequests);
+    }
+}
@@ -0,0 +1,371 @@
+package com.payangar.immersivecompanions.stress;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.mojang.authlib.GameProfile;
+import com.payangar.immersivecompanions.ImmersiveCompanions;
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.entity.ai.AiLod;
+import com.payangar.immersivecompanions.entity.index.CompanionIndex;
+import com.payangar.immersivecompanions.metrics.CompanionMetrics;
+import com.payangar.immersivecompanions.platform.Services;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs {@link StressScenario}s one after another and checks them against stored
+ * baselines.
+ *
+ * <p>Each scenario spawns its entities, warms up for {@link #WARMUP_TICKS}, then
+ * measures {@link #MEASURE_TICKS} server ticks: average and p99 tick time, path
+ * requests, and the companion and entity counts at the end. A scenario fails if it
+ * regresses beyond the tolerance of its stored baseline, or has no baseline unless the
+ * run records one. The chunks a scenario uses are force-loaded while it runs, and its
+ * entities are removed when it ends. Scenarios that need a player use the caller, or a
+ * platform fake player when there is none.
+ *
+ * <p>Companions spawned by a scenario are pinned to {@link AiLod#FULL} while the run is
+ * active ({@link #pinsFullAi}). A headless server has no player to keep them awake, and
+ * the fake player is not in the level's player list, so without the pin they would go
+ * dormant and the run would measure idle companions instead of the requested load.
+ * Baselines recorded before the pin are ignored by {@link ScenarioBaseline}.
+ *
+ * <p>Scenarios are run one at a time on an otherwise idle server rather than as
+ * GameTests, since the GameTest runner ticks a whole batch of tests in the same level
+ * at once, which would mix their tick times.
+ *
+ * <p>Scenarios are started with {@code /immersivecompanions scenario}, or on a headless
+ * dedicated server by setting the {@value #AUTORUN_PROPERTY} system property to a
+ * comma-separated list of scenario IDs (or {@code all}), and {@value #RECORD_PROPERTY}
+ * to {@code true} to store the results as baselines. The server then runs them at the
+ * world spawn, writes {@value #RESULTS_FILE} to the server directory and shuts down,
+ * exiting with status 1 if any scenario failed. Only one run can be active at a time.
+ */
+public final class ScenarioRunner {
+
+    /** System property listing scenarios to run when the server starts */
+    public static final String AUTORUN_PROPERTY = ImmersiveCompanions.MOD_ID + ".stressScenarios";
+    /** System property making the auto-run store its results as baselines */
+    public static final String RECORD_PROPERTY = ImmersiveCompanions.MOD_ID + ".stressRecord";
+
+    private static final String RESULTS_FILE = "immersivecompanions-stress-results.json";
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    /** Profile of the fake player driving scenarios that need one when no player runs them */
+    private static final GameProfile FAKE_PLAYER_PROFILE = new GameProfile(
+            UUID.nameUUIDFromBytes((ImmersiveCompanions.MOD_ID + ":stress").getBytes(StandardCharsets.UTF_8)),
+            "[ImmersiveCompanionsStress]");
+
+    /** Ticks between setup and measurement, letting spawns settle and paths warm up */
+    private static final int WARMUP_TICKS = 100;
+    /** Ticks measured per scenario (30 seconds) */
+    private static final int MEASURE_TICKS = 600;
+
+    @Nullable
+    private static Run run;
+
+    private ScenarioRunner() {
+    }
+
+    // ========== Control ==========
+
+    /**
+     * Starts running scenarios. The first scenario is set up at the end of the current tick.
+     *
+     * @param level      The level to run in
+     * @param origin     The center of the scenarios
+     * @param player     The player running the scenarios; a fake player is used if null
+     * @param scenarios  The scenarios to run, in order
+     * @param record     Store the results as the new baselines
+     * @param output     Receives progress and result lines
+     * @param onComplete Called with the number of failed scenarios after the last one, or null
+     * @return false if a run is already active
+     */
+    public static boolean start(ServerLevel level, Vec3 origin, @Nullable ServerPlayer player,
+            List<StressScenario> scenarios, boolean record, Consumer<String> output, @Nullable IntConsumer onComplete) {
+        if (run != null) {
+            return false;
+        }
+        run = new Run(level, origin, player, scenarios, record, output, onComplete);
+        return true;
+    }
+
+    /**
+     * Cancels the active run, removing its entities.
+     *
+     * @return false if no run was active
+     */
+    public static boolean cancel() {
+        if (run == null) {
+            return false;
+        }
+        run.abort();
+        run = null;
+        return true;
+    }
+
+    public static boolean isRunning() {
+        return run != null;
+    }
+
+    /**
+     * Checks if a companion belongs to the active run and must keep full AI, whatever
+     * players are nearby.
+     *
+     * @param companion The companion
+     * @return true if a run is active and the companion was spawned by a scenario
+     */
+    public static boolean pinsFullAi(CompanionEntity companion) {
+        return run != null && companion.getTags().contains(StressSpawner.SCENARIO_TAG);
+    }
+
+    /**
+     * Advances the active run. Call at the end of every server tick.
+     *
+     * @param tickNanos The duration of the tick that just ended, from {@link ServerTickTimer}
+     */
+    public static void tick(long tickNanos) {
+        if (run != null && run.tick(tickNanos)) {
+            run = null;
+        }
+    }
+
+    /**
+     * Starts the scenarios named by {@value #AUTORUN_PROPERTY}, if set. Call when the
+     * server has started.
+     *
+     * @param server The server
+     */
+    public static void onServerStarted(MinecraftServer server) {
+        String property = System.getProperty(AUTORUN_PROPERTY);
+        if (property == null || property.isBlank()) {
+            return;
+        }
+
+        List<StressScenario> scenarios = new ArrayList<>();
+        if (property.trim().equalsIgnoreCase("all")) {
+            scenarios.addAll(Arrays.asList(StressScenario.values()));
+        } else {
+            for (String id : property.split(",")) {
+                StressScenario scenario = StressScenario.byId(id.trim());
+                if (scenario != null) {
+                    scenarios.add(scenario);
+                } else {
+                    ImmersiveCompanions.LOGGER.warn("Unknown stress scenario '{}'", id.trim());
+                }
+            }
+        }
+
+        ServerLevel level = server.overworld();
+        boolean record = Boolean.getBoolean(RECORD_PROPERTY);
+        ImmersiveCompanions.LOGGER.info("Running {} stress scenario(s) from {}", scenarios.size(), AUTORUN_PROPERTY);
+        start(level, Vec3.atBottomCenterOf(level.getSharedSpawnPos()), null, scenarios, record,
+                ImmersiveCompanions.LOGGER::info, failures -> {
+                    if (failures > 0) {
+                        // System.exit runs the server's shutdown hook, which stops and saves
+                        // the server; it must not block the server thread it waits for
+                        ImmersiveCompanions.LOGGER.error("{} stress scenario(s) failed", failures);
+                        new Thread(() -> System.exit(1), "Stress Scenario Exit").start();
+                    } else {
+                        server.halt(false);
+                    }
+                });
+    }
+
+    /**
+     * Drops the active run without cleanup. Call on server stop.
+     */
+    public static void clearAll() {
+        run = null;
+    }
+
+    // ========== Run ==========
+
+    /**
+     * One sequence of scenarios in progress.
+     */
+    private static final class Run {
+        private final ServerLevel level;
+        private final Vec3 origin;
+        @Nullable
+        private ServerPlayer player;
+        private final List<StressScenario> scenarios;
+        private final boolean record;
+        private final Consumer<String> output;
+        @Nullable
+        private final IntConsumer onComplete;
+
+        private final Map<String, ScenarioResult> baselines;
+        private final Map<String, ScenarioResult> results = new LinkedHashMap<>();
+        private final JsonObject report = new JsonObject();
+        private final long[] samples = new long[MEASURE_TICKS];
+        private final LongList forcedChunks = new LongArrayList();
+
+        private int index = -1;
+        private int elapsed;
+        private long pathsAtStart;
+        private int failures;
+
+        Run(ServerLevel level, Vec3 origin, @Nullable ServerPlayer player, List<StressScenario> scenarios,
+                boolean record, Consumer<String> output, @Nullable IntConsumer onComplete) {
+            this.level = level;
+            this.origin = origin;
+            this.player = player;
+            this.scenarios = scenarios;
+            this.record = record;
+            this.output = output;
+            this.onComplete = onComplete;
+            this.baselines = ScenarioBaseline.load();
+        }
+
+        /**
+         * @return true when every scenario has finished
+         */
+        boolean tick(long tickNanos) {
+            if (index >= 0) {
+                StressScenario current = scenarios.get(index);
+                if (elapsed >= WARMUP_TICKS) {
+                    samples[elapsed - WARMUP_TICKS] = tickNanos;
+                }
+                elapsed++;
+                if (elapsed == WARMUP_TICKS) {
+                    pathsAtStart = CompanionMetrics.Counter.PATHS_REQUESTED.get();
+                }
+                if (elapsed < WARMUP_TICKS + MEASURE_TICKS) {
+                    current.tick(level, origin, player, elapsed);
+                    return false;
+                }
+                finish(current);
+            }
+
+            if (++index < scenarios.size()) {
+                begin(scenarios.get(index));
+                return false;
+            }
+
+            complete();
+            return true;
+        }
+
+        void abort() {
+            if (index >= 0 && index < scenarios.size()) {
+                StressSpawner.clear(level.getServer(), StressSpawner.SCENARIO_TAG);
+                releaseChunks();
+            }
+        }
+
+        private void begin(StressScenario scenario) {
+            output.accept(String.format("Running %s (%d s)...", scenario.getId(), (WARMUP_TICKS + MEASURE_TICKS) / 20));
+            forceChunks(scenario.getRadius());
+            if (scenario.needsPlayer() && player == null) {
+                player = Services.get().getFakePlayer(level, FAKE_PLAYER_PROFILE);
+                player.moveTo(origin.x, origin.y, origin.z, 0.0F, 0.0F);
+            }
+            scenario.setUp(level, origin, player);
+            elapsed = 0;
+        }
+
+        private void finish(StressScenario scenario) {
+            long total = 0L;
+            for (long sample : samples) {
+                total += sample;
+            }
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            long p99 = sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+
+            int entities = 0;
+            for (Entity ignored : level.getAllEntities()) {
+                entities++;
+            }
+
+            ScenarioResult result = new ScenarioResult(
+                    total / 1.0e6 / samples.length, p99 / 1.0e6,
+                    CompanionIndex.get(level).size(), entities,
+                    CompanionMetrics.Counter.PATHS_REQUESTED.get() - pathsAtStart);
+            results.put(scenario.getId(), result);
+
+            StressSpawner.clear(level.getServer(), StressSpawner.SCENARIO_TAG);
+            releaseChunks();
+
+            // Without a baseline there is nothing to pass against, unless this run records one
+            ScenarioResult baseline = baselines.get(scenario.getId());
+            boolean passed = baseline != null ? result.isWithin(baseline) : record;
+            if (!passed) {
+                failures++;
+            }
+
+            JsonObject entry = new JsonObject();
+            entry.add("result", GSON.toJsonTree(result));
+            if (baseline != null) {
+                entry.add("baseline", GSON.toJsonTree(baseline));
+            }
+            entry.addProperty("passed", passed);
+            report.add(scenario.getId(), entry);
+
+            output.accept(String.format("  - %s | %s | %s", scenario.getId(), result.describe(),
+                    baseline == null ? (record ? "no baseline" : "FAIL, no baseline; record one with 'scenario record'")
+                            : passed ? "PASS" : "FAIL, baseline " + baseline.describe()));
+        }
+
+        private void complete() {
+            if (record && !results.isEmpty()) {
+                ScenarioBaseline.save(results);
+                output.accept("Stored " + results.size() + " result(s) as the new baseline");
+            }
+
+            Path path = level.getServer().getServerDirectory().resolve(RESULTS_FILE);
+            try {
+                Files.writeString(path, GSON.toJson(report));
+            } catch (IOException e) {
+                ImmersiveCompanions.LOGGER.error("Failed to write stress results to {}", path, e);
+            }
+
+            output.accept(String.format("Stress scenarios done: %d run, %d failed", results.size(), failures));
+            if (onComplete != null) {
+                onComplete.accept(failures);
+            }
+        }
+
+        private void forceChunks(int radius) {
+            ChunkPos min = new ChunkPos((int) Math.floor(origin.x - radius) >> 4, (int) Math.floor(origin.z - radius) >> 4);
+            ChunkPos max = new ChunkPos((int) Math.floor(origin.x + radius) >> 4, (int) Math.floor(origin.z + radius) >> 4);
+            for (int x = min.x; x <= max.x; x++) {
+                for (int z = min.z; z <= max.z; z++) {
+                    if (!level.getForcedChunks().contains(ChunkPos.asLong(x, z))) {
+                        level.setChunkForced(x, z, true);
+                        forcedChunks.add(ChunkPos.asLong(x, z));
+                    }
+                }
+            }
+        }
+
+        private void releaseChunks() {
+            for (int i = 0; i < forcedChunks.size(); i++) {
+                long chunk = forcedChunks.getLong(i);
+                level.setChunkForced(ChunkPos.getX(chunk), ChunkPos.getZ(chunk), false);
+            }
+            forcedChunks.clear();
+        }
+    }
+}
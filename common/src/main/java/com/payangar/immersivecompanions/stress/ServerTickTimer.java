@@ -0,0 +1,130 @@
+package com.payangar.immersivecompanions.stress;
+
+import net.minecraft.world.entity.Entity;
+
+/**
+ * Measures how long each server tick takes, from the platform's start-of-tick event to
+ * its end-of-tick event. Time the server spends waiting for the next tick is excluded.
+ *
+ * <p>The last {@link #WINDOW} ticks are kept for rolling averages. While companion
+ * timing is on, the time spent in companion ticks is also summed per server tick, so
+ * the companions' share of the tick can be reported; while it is off,
+ * {@link #startCompanion} and {@link #stopCompanion} cost a static field read.
+ */
+public final class ServerTickTimer {
+
+    /** Ticks kept for rolling averages (5 seconds) */
+    public static final int WINDOW = 100;
+
+    /** Value returned by {@link #startCompanion} while companion timing is off */
+    private static final long NOT_TIMING = Long.MIN_VALUE;
+
+    private static long tickStart;
+    private static long lastTickNanos;
+
+    private static final long[] TICK_NANOS = new long[WINDOW];
+    private static final long[] COMPANION_NANOS = new long[WINDOW];
+    private static int next;
+    private static int filled;
+
+    private static boolean timingCompanions;
+    private static long companionNanos;
+
+    private ServerTickTimer() {
+    }
+
+    // ========== Server Tick ==========
+
+    /**
+     * Call at the start of every server tick.
+     */
+    public static void onTickStart() {
+        tickStart = System.nanoTime();
+        companionNanos = 0L;
+    }
+
+    /**
+     * Call at the end of every server tick.
+     *
+     * @return The duration of the tick that just ended, in nanoseconds
+     */
+    public static long onTickEnd() {
+        lastTickNanos = System.nanoTime() - tickStart;
+        TICK_NANOS[next] = lastTickNanos;
+        COMPANION_NANOS[next] = companionNanos;
+        next = (next + 1) % WINDOW;
+        filled = Math.min(filled + 1, WINDOW);
+        return lastTickNanos;
+    }
+
+    /**
+     * Gets the duration of the last completed server tick, in nanoseconds.
+     */
+    public static long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    /**
+     * Gets the average server tick duration over the last {@link #WINDOW} ticks, in nanoseconds.
+     */
+    public static long getAverageTickNanos() {
+        return average(TICK_NANOS);
+    }
+
+    /**
+     * Gets the average time per server tick spent in companion ticks over the last
+     * {@link #WINDOW} ticks, in nanoseconds. Only ticks with companion timing on count
+     * towards the total.
+     */
+    public static long getAverageCompanionNanos() {
+        return average(COMPANION_NANOS);
+    }
+
+    // ========== Companion Timing ==========
+
+    /**
+     * Turns timing of companion ticks on or off.
+     */
+    public static void setTimingCompanions(boolean timing) {
+        timingCompanions = timing;
+    }
+
+    public static boolean isTimingCompanions() {
+        return timingCompanions;
+    }
+
+    /**
+     * Starts timing a companion tick. Client-side entities are never timed.
+     *
+     * @param entity The companion about to tick
+     * @return A start timestamp to pass to {@link #stopCompanion}
+     */
+    public static long startCompanion(Entity entity) {
+        if (!timingCompanions || entity.level().isClientSide) {
+            return NOT_TIMING;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Finishes timing a companion tick.
+     *
+     * @param start The timestamp returned by {@link #startCompanion}
+     */
+    public static void stopCompanion(long start) {
+        if (start != NOT_TIMING) {
+            companionNanos += System.nanoTime() - start;
+        }
+    }
+
+    private static long average(long[] samples) {
+        if (filled == 0) {
+            return 0L;
+        }
+        long total = 0L;
+        for (int i = 0; i < filled; i++) {
+            total += samples[i];
+        }
+        return total / filled;
+    }
+}
@@ -0,0 +1,112 @@
+package com.payangar.immersivecompanions.stress;
+
+import com.payangar.immersivecompanions.entity.combat.CombatStance;
+import com.payangar.immersivecompanions.entity.index.CompanionIndex;
+import com.payangar.immersivecompanions.entity.mode.CompanionMode;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Operator-driven stress load, behind {@code /immersivecompanions stress}.
+ *
+ * <p>The first spawn records the server's rolling average tick time as the baseline
+ * and turns on companion tick timing in {@link ServerTickTimer}; clearing the load
+ * turns it off again. While the load is active, {@link #report} compares the current
+ * rolling average against the baseline and shows how much of each tick goes to
+ * companion ticks, timed around the whole {@code CompanionEntity.tick} including the
+ * vanilla mob tick.
+ */
+public final class StressLoad {
+
+    private static boolean active;
+    private static long baselineTickNanos;
+    private static long startedAt;
+    private static int spawned;
+
+    private StressLoad() {
+    }
+
+    /**
+     * Spawns stress companions around a center, starting the load if it is not active.
+     *
+     * @param level  The level to spawn in
+     * @param center The center of the spawn area
+     * @param count  The number of companions to spawn
+     * @param radius The horizontal radius of the spawn area
+     * @param team   The team key for the companions
+     * @param mode   The companions' mode
+     * @param stance The companions' combat stance
+     * @return The number of companions spawned
+     */
+    public static int spawn(ServerLevel level, Vec3 center, int count, int radius, String team,
+            CompanionMode mode, CombatStance stance) {
+        if (!active) {
+            active = true;
+            baselineTickNanos = ServerTickTimer.getAverageTickNanos();
+            startedAt = System.nanoTime();
+            spawned = 0;
+            ServerTickTimer.setTimingCompanions(true);
+        }
+        int added = StressSpawner.spawnCompanions(level, center, count, radius, team, mode, stance, null, null,
+                StressSpawner.LOAD_TAG).size();
+        spawned += added;
+        return added;
+    }
+
+    /**
+     * Removes every stress load entity and ends the load. Scenario entities are left alone.
+     *
+     * @param server The server
+     * @return The number of entities removed
+     */
+    public static int clear(MinecraftServer server) {
+        clearAll();
+        return StressSpawner.clear(server, StressSpawner.LOAD_TAG);
+    }
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Builds the report lines for the active load.
+     *
+     * @param server The server
+     * @return The report lines, without a header
+     */
+    public static List<String> report(MinecraftServer server) {
+        List<String> lines = new ArrayList<>();
+        if (!active) {
+            lines.add("No stress load is active; use 'stress spawn' to start one.");
+            return lines;
+        }
+
+        int loaded = 0;
+        for (ServerLevel level : server.getAllLevels()) {
+            loaded += CompanionIndex.get(level).size();
+        }
+
+        double baseline = baselineTickNanos / 1.0e6;
+        double current = ServerTickTimer.getAverageTickNanos() / 1.0e6;
+        double companions = ServerTickTimer.getAverageCompanionNanos() / 1.0e6;
+        lines.add(String.format("Load active for %.0f s | %d stress companions spawned | %d companions loaded",
+                (System.nanoTime() - startedAt) / 1.0e9, spawned, loaded));
+        lines.add(String.format("MSPT (last %d ticks) %.2f ms | before load %.2f ms | %+.2f ms",
+                ServerTickTimer.WINDOW, current, baseline, current - baseline));
+        lines.add(String.format("Companion tick time %.2f ms per tick | %.0f%% of tick time",
+                companions, current > 0.0 ? companions / current * 100.0 : 0.0));
+        return lines;
+    }
+
+    /**
+     * Ends the load without removing entities. Call on server stop.
+     */
+    public static void clearAll() {
+        active = false;
+        ServerTickTimer.setTimingCompanions(false);
+    }
+}
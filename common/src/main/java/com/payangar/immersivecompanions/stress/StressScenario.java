@@ -0,0 +1,142 @@
+package com.payangar.immersivecompanions.stress;
+
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.entity.CompanionTeleportHandler;
+import com.payangar.immersivecompanions.entity.CompanionType;
+import com.payangar.immersivecompanions.entity.combat.CombatStance;
+import com.payangar.immersivecompanions.entity.mode.CompanionMode;
+import com.payangar.immersivecompanions.entity.team.CompanionTeams;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+
+/**
+ * Scripted load scenarios run by the {@link ScenarioRunner}.
+ */
+public enum StressScenario {
+
+    /** A village defended by 200 wandering guards */
+    VILLAGE_GUARDS("village_guards", false, 40) {
+        @Override
+        void setUp(ServerLevel level, Vec3 origin, @Nullable ServerPlayer player) {
+            StressSpawner.spawnCompanions(level, origin, 200, 32, CompanionEntity.DEFAULT_TEAM,
+                    CompanionMode.WANDER, CombatStance.DEFENSIVE, null, null, StressSpawner.SCENARIO_TAG);
+        }
+    },
+
+    /** A player with 20 following companions, teleporting back and forth every two seconds */
+    FOLLOW_TELEPORTS("follow_teleports", true, 64) {
+        private static final int TELEPORT_INTERVAL = 40;
+        /** Far enough that followers can only keep up through the teleport handler */
+        private static final double HOP_DISTANCE = 48.0;
+
+        @Override
+        void setUp(ServerLevel level, Vec3 origin, @Nullable ServerPlayer player) {
+            StressSpawner.spawnCompanions(level, origin, 20, 6, CompanionTeams.playerTeam(player.getUUID()),
+                    CompanionMode.FOLLOW, CombatStance.ASSIST, null, player.getUUID(), StressSpawner.SCENARIO_TAG);
+        }
+
+        @Override
+        void tick(ServerLevel level, Vec3 origin, @Nullable ServerPlayer player, int tick) {
+            if (tick % TELEPORT_INTERVAL != 0 || player.hasDisconnected() || player.level() != level) {
+                return;
+            }
+            boolean away = (tick / TELEPORT_INTERVAL) % 2 == 0;
+            double x = away ? origin.x + HOP_DISTANCE : origin.x;
+            double z = origin.z;
+            Vec3 target = new Vec3(x, level.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES,
+                    Mth.floor(x), Mth.floor(z)), z);
+
+            // Companions are gathered around the player's current position, so notify first
+            CompanionTeleportHandler.onPlayerTeleport(player, level, target);
+            player.teleportTo(level, target.x, target.y, target.z, player.getYRot(), player.getXRot());
+        }
+    },
+
+    /** 60 aggressive companions, half melee and half ranged, against a 60-strong illager raid */
+    RAID_BRAWL("raid_brawl", false, 48) {
+        private static final double RAID_OFFSET = 24.0;
+
+        @Override
+        void setUp(ServerLevel level, Vec3 origin, @Nullable ServerPlayer player) {
+            StressSpawner.spawnCompanions(level, origin, 30, 12, CompanionEntity.DEFAULT_TEAM,
+                    CompanionMode.WANDER, CombatStance.AGGRESSIVE, CompanionType.MELEE, null,
+                    StressSpawner.SCENARIO_TAG);
+            StressSpawner.spawnCompanions(level, origin, 30, 12, CompanionEntity.DEFAULT_TEAM,
+                    CompanionMode.WANDER, CombatStance.AGGRESSIVE, CompanionType.RANGED, null,
+                    StressSpawner.SCENARIO_TAG);
+
+            Vec3 raid = origin.add(RAID_OFFSET, 0.0, 0.0);
+            StressSpawner.spawnMobs(level, raid, 40, 12, EntityType.PILLAGER, StressSpawner.SCENARIO_TAG);
+            StressSpawner.spawnMobs(level, raid, 20, 12, EntityType.VINDICATOR, StressSpawner.SCENARIO_TAG);
+        }
+    };
+
+    private final String id;
+    private final boolean needsPlayer;
+    private final int radius;
+
+    StressScenario(String id, boolean needsPlayer, int radius) {
+        this.id = id;
+        this.needsPlayer = needsPlayer;
+        this.radius = radius;
+    }
+
+    /**
+     * Spawns the scenario's entities.
+     *
+     * @param level  The level to run in
+     * @param origin The center of the scenario
+     * @param player The player running the scenario; never null if {@link #needsPlayer()}
+     */
+    abstract void setUp(ServerLevel level, Vec3 origin, @Nullable ServerPlayer player);
+
+    /**
+     * Drives the scenario once per server tick after setup.
+     *
+     * @param tick Ticks since setup
+     */
+    void tick(ServerLevel level, Vec3 origin, @Nullable ServerPlayer player, int tick) {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Checks if the scenario needs a player. The {@link ScenarioRunner} substitutes a
+     * fake player when no player runs it; fake players are not in the level's player
+     * list, so owned companions only reach them through the teleport handler.
+     */
+    public boolean needsPlayer() {
+        return needsPlayer;
+    }
+
+    /**
+     * Gets the horizontal radius around the origin the scenario uses, in blocks.
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Looks up a scenario by ID.
+     *
+     * @param id The scenario ID
+     * @return The scenario, or null if not found
+     */
+    @Nullable
+    public static StressScenario byId(String id) {
+        for (StressScenario scenario : values()) {
+            if (scenario.id.equals(id)) {
+                return scenario;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,153 @@
+package com.payangar.immersivecompanions.stress;
+
+import com.payangar.immersivecompanions.ImmersiveCompanions;
+import com.payangar.immersivecompanions.data.CompanionEquipment;
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.entity.CompanionType;
+import com.payangar.immersivecompanions.entity.combat.CombatStance;
+import com.payangar.immersivecompanions.entity.mode.CompanionMode;
+import com.payangar.immersivecompanions.registry.ModEntityTypes;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.MobSpawnType;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Spawns companions and hostile mobs in bulk for stress testing.
+ *
+ * <p>Companions go through the same {@code finalizeSpawn} path as natural village
+ * spawns, so they get randomized appearance, equipment and price, and are then
+ * configured for the requested team, mode and stance. Everything spawned here is tagged
+ * with the caller's tag, which is saved with the entity, so {@link #clear} also finds
+ * stress entities left over from a previous session. Scenarios and the operator load use
+ * separate tags so clearing one leaves the other's entities alone.
+ */
+public final class StressSpawner {
+
+    /** Entity tag marking entities spawned by stress scenarios */
+    public static final String SCENARIO_TAG = ImmersiveCompanions.MOD_ID + ".stress";
+    /** Entity tag marking entities spawned by the operator stress load */
+    public static final String LOAD_TAG = ImmersiveCompanions.MOD_ID + ".stress_load";
+
+    private StressSpawner() {
+    }
+
+    /**
+     * Spawns configured companions at random surface positions around a center.
+     *
+     * @param level  The level to spawn in
+     * @param center The center of the spawn area
+     * @param count  The number of companions to spawn
+     * @param radius The horizontal radius of the spawn area
+     * @param team   The team key for the companions
+     * @param mode   The companions' mode
+     * @param stance The companions' combat stance
+     * @param type   The combat type, or null to keep the randomly rolled one
+     * @param owner  The owner's UUID, or null for unowned companions
+     * @param tag    The tag marking the companions for {@link #clear}
+     * @return The companions added to the level
+     */
+    public static List<CompanionEntity> spawnCompanions(ServerLevel level, Vec3 center, int count, int radius,
+            String team, CompanionMode mode, CombatStance stance, @Nullable CompanionType type, @Nullable UUID owner,
+            String tag) {
+        RandomSource random = level.getRandom();
+        List<CompanionEntity> spawned = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CompanionEntity companion = ModEntityTypes.getCompanion().create(level);
+            if (companion == null) {
+                break;
+            }
+
+            BlockPos pos = randomSurfacePosition(level, center, radius, random);
+            companion.moveTo(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5, random.nextFloat() * 360f, 0f);
+            companion.finalizeSpawn(level, level.getCurrentDifficultyAt(pos), MobSpawnType.COMMAND, null);
+            if (type != null && type != companion.getCombatType()) {
+                companion.setCombatType(type);
+                CompanionEquipment.equipCompanion(companion, type, random);
+            }
+            companion.setOwnerUUID(owner);
+            companion.setCompanionTeam(team);
+            companion.setMode(mode);
+            companion.setCombatStance(stance);
+            companion.addTag(tag);
+
+            if (level.addFreshEntity(companion)) {
+                spawned.add(companion);
+            }
+        }
+        return spawned;
+    }
+
+    /**
+     * Spawns mobs at random surface positions around a center.
+     *
+     * @param level  The level to spawn in
+     * @param center The center of the spawn area
+     * @param count  The number of mobs to spawn
+     * @param radius The horizontal radius of the spawn area
+     * @param type   The mob type
+     * @param tag    The tag marking the mobs for {@link #clear}
+     * @return The number of mobs added to the level
+     */
+    public static int spawnMobs(ServerLevel level, Vec3 center, int count, int radius, EntityType<? extends Mob> type,
+            String tag) {
+        RandomSource random = level.getRandom();
+        int spawned = 0;
+        for (int i = 0; i < count; i++) {
+            Mob mob = type.create(level);
+            if (mob == null) {
+                break;
+            }
+
+            BlockPos pos = randomSurfacePosition(level, center, radius, random);
+            mob.moveTo(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5, random.nextFloat() * 360f, 0f);
+            mob.finalizeSpawn(level, level.getCurrentDifficultyAt(pos), MobSpawnType.COMMAND, null);
+            mob.setPersistenceRequired();
+            mob.addTag(tag);
+
+            if (level.addFreshEntity(mob)) {
+                spawned++;
+            }
+        }
+        return spawned;
+    }
+
+    /**
+     * Removes every loaded stress-test entity carrying a tag.
+     *
+     * @param server The server
+     * @param tag    The tag to remove entities by
+     * @return The number of entities removed
+     */
+    public static int clear(MinecraftServer server, String tag) {
+        List<Entity> tagged = new ArrayList<>();
+        for (ServerLevel level : server.getAllLevels()) {
+            for (Entity entity : level.getAllEntities()) {
+                if (entity.getTags().contains(tag)) {
+                    tagged.add(entity);
+                }
+            }
+        }
+        for (Entity entity : tagged) {
+            entity.discard();
+        }
+        return tagged.size();
+    }
+
+    private static BlockPos randomSurfacePosition(ServerLevel level, Vec3 center, int radius, RandomSource random) {
+        int x = (int) Math.floor(center.x) + random.nextIntBetweenInclusive(-radius, radius);
+        int z = (int) Math.floor(center.z) + random.nextIntBetweenInclusive(-radius, radius);
+        return new BlockPos(x, level.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, x, z), z);
+    }
+}
@@ -0,0 +1,111 @@
+package com.payangar.immersivecompanions.village;
+
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Shared set of players each village considers hostile, one instance per level.
+ *
+ * <p>Guards bound to the same village ({@link CompanionEntity#getHomeVillage()}) read one
+ * shared result, keyed by the village center. The set is computed at most once per
+ * {@link #REFRESH_INTERVAL} per village, or sooner when gossip written by this mod
+ * changes the village's reputation totals, so the expensive part runs once per village
+ * rather than once per guard. Companions without a village compute the set from their
+ * own {@link VillageReputation} area each time they ask.
+ */
+public class VillageHostility {
+
+    private static final Map<ResourceKey<Level>, VillageHostility> SERVICES = new HashMap<>();
+
+    /** Average reputation at or below which a village treats a player as hostile */
+    public static final int REPUTATION_THRESHOLD = -100;
+    /** Ticks between recomputations of a village's hostile set */
+    private static final int REFRESH_INTERVAL = 20;
+
+    private final Long2ObjectMap<Entry> entries = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Gets the hostility service for a level, creating it if needed.
+     *
+     * @param level The server level
+     * @return The level's hostility service
+     */
+    public static VillageHostility get(ServerLevel level) {
+        return SERVICES.computeIfAbsent(level.dimension(), key -> new VillageHostility());
+    }
+
+    /**
+     * Clears all services. Call on server stop.
+     */
+    public static void clearAll() {
+        SERVICES.clear();
+    }
+
+    /**
+     * Gets the online players the companion's village considers hostile.
+     *
+     * @param companion The guard asking
+     * @return Hostile players in the companion's level; may include players out of range
+     */
+    public List<Player> getHostilePlayers(CompanionEntity companion) {
+        if (!(companion.level() instanceof ServerLevel level)) {
+            return Collections.emptyList();
+        }
+
+        VillageReputation.Area area = VillageReputation.get(level).getArea(companion);
+        long now = level.getGameTime();
+        BlockPos village = companion.getHomeVillage();
+        if (village == null) {
+            // No village to share the result with
+            return compute(level, area, now).hostilePlayers;
+        }
+        long key = village.asLong();
+
+        Entry entry = entries.get(key);
+        if (entry == null || entry.area != area || entry.revision != area.getRevision()
+                || now - entry.computedTick >= REFRESH_INTERVAL) {
+            if (entry == null) {
+                pruneStale(now);
+            }
+            entry = compute(level, area, now);
+            entries.put(key, entry);
+        }
+        return entry.hostilePlayers;
+    }
+
+    private static Entry compute(ServerLevel level, VillageReputation.Area area, long now) {
+        List<Player> hostile = new ArrayList<>();
+        for (UUID uuid : area.getPlayersAtOrBelow(REPUTATION_THRESHOLD)) {
+            Player player = level.getPlayerByUUID(uuid);
+            if (player != null) {
+                hostile.add(player);
+            }
+        }
+        return new Entry(area, area.getRevision(), now,
+                hostile.isEmpty() ? Collections.emptyList() : hostile);
+    }
+
+    private void pruneStale(long now) {
+        entries.values().removeIf(entry -> now - entry.computedTick >= REFRESH_INTERVAL * 10L);
+    }
+
+    /**
+     * Hostile set computed for one village.
+     */
+    private record Entry(VillageReputation.Area area, int revision, long computedTick,
+                         List<Player> hostilePlayers) {
+    }
+}
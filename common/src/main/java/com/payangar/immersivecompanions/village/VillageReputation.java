@@ -0,0 +1,270 @@
+package com.payangar.immersivecompanions.village;
+
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.metrics.CompanionMetrics;
+import com.payangar.immersivecompanions.recruitment.CompanionPricing;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.ai.gossip.GossipType;
+import net.minecraft.world.entity.npc.Villager;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Cached per-village reputation totals, one instance per level.
+ *
+ * <p>Companions bound to a village ({@link CompanionEntity#getHomeVillage()}) share one
+ * area per village: the villagers within {@link #VILLAGE_RANGE} of its center. For other
+ * companions, an area is the chunk section containing the companion's anchor (its
+ * restriction center, or its own position), together with the villagers within half
+ * of {@link #SEARCH_RANGE} of that section, which approximates a {@link #SEARCH_RANGE}
+ * search around any companion inside it. For each area the cache keeps the number of
+ * villagers and, per player UUID, the sum of every villager's reputation for that
+ * player, so recruitment quotes and hostility checks are a map lookup instead of a
+ * villager scan.
+ *
+ * <p>Gossip written by this mod goes through {@link #addGossip}, which updates every
+ * cached area containing the villager in place. Gossip that changes elsewhere
+ * (trading, vanilla gossip exchange, decay) is picked up when an area expires after
+ * {@link #EXPIRY_TICKS} and is rebuilt.
+ */
+public class VillageReputation {
+
+    private static final Map<ResourceKey<Level>, VillageReputation> CACHES = new HashMap<>();
+
+    /** Search range the area approximates around a companion */
+    public static final double SEARCH_RANGE = 16.0;
+    /** Range around a village center counted as the village, the same radius village spawning counts villagers in */
+    public static final double VILLAGE_RANGE = 64.0;
+    /** Ticks before an area is rebuilt from the villagers' gossip */
+    private static final int EXPIRY_TICKS = 100;
+
+    /** Areas of unbound companions, by section */
+    private final Long2ObjectMap<Area> areas = new Long2ObjectOpenHashMap<>();
+    /** Areas of bound villages, by village center */
+    private final Long2ObjectMap<Area> villageAreas = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Gets the reputation cache for a level, creating it if needed.
+     *
+     * @param level The server level
+     * @return The level's reputation cache
+     */
+    public static VillageReputation get(ServerLevel level) {
+        return CACHES.computeIfAbsent(level.dimension(), key -> new VillageReputation());
+    }
+
+    /**
+     * Clears all caches. Call on server stop.
+     */
+    public static void clearAll() {
+        CACHES.clear();
+    }
+
+    // ========== Queries ==========
+
+    /**
+     * Gets the village area a companion belongs to, rebuilding it if it expired.
+     *
+     * @param companion The companion
+     * @return The companion's village area
+     */
+    public Area getArea(CompanionEntity companion) {
+        ServerLevel level = (ServerLevel) companion.level();
+        BlockPos village = companion.getHomeVillage();
+        return village != null ? getVillageArea(level, village) : getArea(level, getAnchor(companion));
+    }
+
+    /**
+     * Gets the area of a bound village, rebuilding it if it expired.
+     *
+     * @param level  The server level
+     * @param center The village center
+     * @return The village area
+     */
+    public Area getVillageArea(ServerLevel level, BlockPos center) {
+        long key = center.asLong();
+        long now = level.getGameTime();
+        Area area = villageAreas.get(key);
+        if (area == null || now - area.builtTick >= EXPIRY_TICKS) {
+            pruneExpired(now);
+            area = build(level, new AABB(center).inflate(VILLAGE_RANGE), now);
+            villageAreas.put(key, area);
+        }
+        return area;
+    }
+
+    /**
+     * Gets the section area containing a position, rebuilding it if it expired.
+     *
+     * @param level  The server level
+     * @param anchor A position inside the area
+     * @return The village area
+     */
+    public Area getArea(ServerLevel level, BlockPos anchor) {
+        long key = SectionPos.asLong(anchor);
+        long now = level.getGameTime();
+        Area area = areas.get(key);
+        if (area == null || now - area.builtTick >= EXPIRY_TICKS) {
+            pruneExpired(now);
+            SectionPos section = SectionPos.of(key);
+            AABB searchBox = new AABB(
+                    section.minBlockX(), section.minBlockY(), section.minBlockZ(),
+                    section.maxBlockX() + 1, section.maxBlockY() + 1, section.maxBlockZ() + 1)
+                    .inflate(SEARCH_RANGE / 2);
+            area = build(level, searchBox, now);
+            areas.put(key, area);
+        }
+        return area;
+    }
+
+    /**
+     * Gets the position the section area of a companion without a village is anchored to:
+     * its restriction center if it has one, otherwise its own position.
+     *
+     * @param companion The companion
+     * @return The anchor position
+     */
+    public static BlockPos getAnchor(CompanionEntity companion) {
+        return companion.hasRestriction() ? companion.getRestrictCenter() : companion.blockPosition();
+    }
+
+    // ========== Updates ==========
+
+    /**
+     * Adds gossip to a villager and applies the resulting reputation change to every
+     * cached area containing that villager.
+     *
+     * @param villager The villager receiving the gossip
+     * @param player   The player the gossip is about
+     * @param type     The gossip type
+     * @param value    The gossip value to add
+     */
+    public void addGossip(Villager villager, UUID player, GossipType type, int value) {
+        int before = CompanionPricing.getPlayerReputation(villager, player);
+        CompanionMetrics.Counter.GOSSIP_WRITES.increment();
+        villager.getGossips().add(player, type, value);
+        // Measure the real change, since gossip values are capped per type
+        int delta = CompanionPricing.getPlayerReputation(villager, player) - before;
+        if (delta == 0) {
+            return;
+        }
+
+        applyGossip(areas, villager, player, delta);
+        applyGossip(villageAreas, villager, player, delta);
+    }
+
+    private static void applyGossip(Long2ObjectMap<Area> areas, Villager villager, UUID player, int delta) {
+        for (Area area : areas.values()) {
+            if (area.villagers.contains(villager)) {
+                area.totals.mergeInt(player, delta, Integer::sum);
+                area.revision++;
+            }
+        }
+    }
+
+    // ========== Internals ==========
+
+    private static Area build(ServerLevel level, AABB searchBox, long now) {
+        Area area = new Area(now);
+        CompanionMetrics.Counter.ENTITY_SCANS.increment();
+        for (Villager villager : level.getEntitiesOfClass(Villager.class, searchBox)) {
+            area.villagers.add(villager);
+            for (UUID player : villager.getGossips().getGossipEntries().keySet()) {
+                int reputation = CompanionPricing.getPlayerReputation(villager, player);
+                if (reputation != 0) {
+                    area.totals.mergeInt(player, reputation, Integer::sum);
+                }
+            }
+        }
+        return area;
+    }
+
+    private void pruneExpired(long now) {
+        areas.values().removeIf(area -> now - area.builtTick >= EXPIRY_TICKS);
+        villageAreas.values().removeIf(area -> now - area.builtTick >= EXPIRY_TICKS);
+    }
+
+    /**
+     * Reputation totals for one village area.
+     */
+    public static final class Area {
+        private final Set<Villager> villagers = new ReferenceOpenHashSet<>();
+        private final Object2IntMap<UUID> totals = new Object2IntOpenHashMap<>();
+        private final long builtTick;
+        private int revision;
+
+        private Area(long builtTick) {
+            this.builtTick = builtTick;
+        }
+
+        /**
+         * Gets the number of villagers counted in this area.
+         */
+        public int getVillagerCount() {
+            return villagers.size();
+        }
+
+        /**
+         * Gets the summed reputation of a player across this area's villagers.
+         *
+         * @param player The player's UUID
+         * @return The total reputation, 0 if no villager has gossip about the player
+         */
+        public int getTotalReputation(UUID player) {
+            return totals.getInt(player);
+        }
+
+        /**
+         * Gets the average reputation of a player across this area's villagers.
+         *
+         * @param player The player's UUID
+         * @return The average reputation, 0 if the area has no villagers
+         */
+        public double getAverageReputation(UUID player) {
+            return villagers.isEmpty() ? 0.0 : (double) totals.getInt(player) / villagers.size();
+        }
+
+        /**
+         * Gets the players whose average reputation is at or below a threshold.
+         * Averages use integer division, matching the per-player checks.
+         *
+         * @param threshold The reputation threshold
+         * @return UUIDs of the matching players, online or not
+         */
+        public List<UUID> getPlayersAtOrBelow(int threshold) {
+            List<UUID> result = new ArrayList<>();
+            if (villagers.isEmpty()) {
+                return result;
+            }
+            for (Object2IntMap.Entry<UUID> entry : totals.object2IntEntrySet()) {
+                if (entry.getIntValue() / villagers.size() <= threshold) {
+                    result.add(entry.getKey());
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Gets the revision of this area's totals, bumped on every incremental update.
+         * A rebuilt area is a new instance, so callers compare both identity and revision.
+         */
+        public int getRevision() {
+            return revision;
+        }
+    }
+}
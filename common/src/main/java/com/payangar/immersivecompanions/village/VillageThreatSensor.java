@@ -0,0 +1,173 @@
+package com.payangar.immersivecompanions.village;
+
+import com.payangar.immersivecompanions.entity.CompanionEntity;
+import com.payangar.immersivecompanions.metrics.CompanionMetrics;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.ai.targeting.TargetingConditions;
+import net.minecraft.world.entity.monster.Creeper;
+import net.minecraft.world.entity.monster.EnderMan;
+import net.minecraft.world.entity.monster.Monster;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared monster scan for village guards, one instance per level.
+ *
+ * <p>Guards bound to the same village ({@link CompanionEntity#getHomeVillage()}) share
+ * one scan for hostile monsters, keyed by the village center and refreshed at most once
+ * per {@link #SCAN_INTERVAL}. The scan covers the union of the search boxes its guards
+ * asked for during the previous interval, so a lone guard scans no more than it would on
+ * its own, and guards standing together share one box. A guard whose search box is not
+ * covered by the current scan triggers a new one that includes it, unless the merged box
+ * would be larger than the old one and the guard's own box together; such a guard, far
+ * from the rest of its village, scans alone. The scan excludes Creepers and Endermen,
+ * and each guard takes the monster nearest to itself that it can target. Guards without
+ * a village keep the vanilla per-goal scan.
+ */
+public class VillageThreatSensor {
+
+    private static final Map<ResourceKey<Level>, VillageThreatSensor> SENSORS = new HashMap<>();
+
+    /** Ticks between monster scans of a village */
+    private static final int SCAN_INTERVAL = 10;
+    /** Vertical search range around a guard, same as the vanilla nearest-target goal */
+    private static final double VERTICAL_RANGE = 4.0;
+    /** Extra blocks around the scan box, so guards moving a little stay covered */
+    private static final double SCAN_MARGIN = 2.0;
+
+    private final Long2ObjectMap<Scan> scans = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Gets the threat sensor for a level, creating it if needed.
+     *
+     * @param level The server level
+     * @return The level's threat sensor
+     */
+    public static VillageThreatSensor get(ServerLevel level) {
+        return SENSORS.computeIfAbsent(level.dimension(), key -> new VillageThreatSensor());
+    }
+
+    /**
+     * Clears all sensors. Call on server stop.
+     */
+    public static void clearAll() {
+        SENSORS.clear();
+    }
+
+    /**
+     * Checks if an entity is a monster guards should proactively attack.
+     * Creepers (explode) and Endermen (teleport, aggro) are excluded.
+     *
+     * @param entity The entity to check
+     * @return true if the entity is a threat
+     */
+    public static boolean isThreat(LivingEntity entity) {
+        return entity instanceof Monster && !(entity instanceof Creeper) && !(entity instanceof EnderMan);
+    }
+
+    /**
+     * Finds the nearest monster in the guard's village scan that the guard can target.
+     *
+     * @param guard      The guard looking for a target; must be bound to a village
+     * @param range      The guard's follow range
+     * @param conditions The guard's targeting conditions
+     * @return The nearest valid monster, or null if none
+     */
+    @Nullable
+    public Monster findTarget(CompanionEntity guard, double range, TargetingConditions conditions) {
+        BlockPos village = guard.getHomeVillage();
+        if (village == null || !(guard.level() instanceof ServerLevel level)) {
+            return null;
+        }
+
+        AABB searchBox = guard.getBoundingBox().inflate(range, VERTICAL_RANGE, range);
+        List<Monster> threats = getThreats(level, village.asLong(), searchBox);
+        Monster best = null;
+        double bestDistanceSq = Double.MAX_VALUE;
+        for (Monster monster : threats) {
+            double distanceSq = guard.distanceToSqr(monster);
+            if (distanceSq < bestDistanceSq && monster.isAlive() && conditions.test(guard, monster)) {
+                best = monster;
+                bestDistanceSq = distanceSq;
+            }
+        }
+        return best;
+    }
+
+    private List<Monster> getThreats(ServerLevel level, long key, AABB searchBox) {
+        long now = level.getGameTime();
+        Scan scan = scans.get(key);
+        if (scan != null && now - scan.tick < SCAN_INTERVAL && encloses(scan.box, searchBox)) {
+            scan.demand = scan.demand.minmax(searchBox);
+            return scan.threats;
+        }
+
+        if (scan == null) {
+            pruneStale(now);
+        }
+        // Cover every guard that asked since the last scan, so they are served by this one,
+        // unless that box would be larger than scanning for this guard separately
+        AABB demand = searchBox;
+        if (scan != null && now - scan.tick <= SCAN_INTERVAL) {
+            AABB merged = scan.demand.minmax(searchBox);
+            if (volume(merged) <= volume(scan.demand) + volume(searchBox)) {
+                demand = merged;
+            } else if (now - scan.tick < SCAN_INTERVAL) {
+                // Far from the rest of the village, so cheaper to scan alone
+                CompanionMetrics.Counter.ENTITY_SCANS.increment();
+                return level.getEntitiesOfClass(Monster.class, searchBox, VillageThreatSensor::isThreat);
+            }
+        }
+        scan = scan(level, demand, now);
+        scans.put(key, scan);
+        return scan.threats;
+    }
+
+    private static Scan scan(ServerLevel level, AABB demand, long now) {
+        AABB scanBox = demand.inflate(SCAN_MARGIN);
+        CompanionMetrics.Counter.ENTITY_SCANS.increment();
+        List<Monster> threats = level.getEntitiesOfClass(Monster.class, scanBox, VillageThreatSensor::isThreat);
+        return new Scan(now, scanBox, threats, demand);
+    }
+
+    private static double volume(AABB box) {
+        return box.getXsize() * box.getYsize() * box.getZsize();
+    }
+
+    private static boolean encloses(AABB outer, AABB inner) {
+        return inner.minX >= outer.minX && inner.minY >= outer.minY && inner.minZ >= outer.minZ
+                && inner.maxX <= outer.maxX && inner.maxY <= outer.maxY && inner.maxZ <= outer.maxZ;
+    }
+
+    private void pruneStale(long now) {
+        scans.values().removeIf(scan -> now - scan.tick >= SCAN_INTERVAL * 10L);
+    }
+
+    /**
+     * Monsters found by one village scan, in no particular order.
+     */
+    private static final class Scan {
+        private final long tick;
+        private final AABB box;
+        private final List<Monster> threats;
+        /** Union of the search boxes of the guards served by this scan */
+        private AABB demand;
+
+        private Scan(long tick, AABB box, List<Monster> threats, AABB demand) {
+            this.tick = tick;
+            this.box = box;
+            this.threats = threats;
+            this.demand = demand;
+        }
+    }
+}
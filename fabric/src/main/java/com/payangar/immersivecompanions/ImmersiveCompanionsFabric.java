@@ -1,25 +1,41 @@
 package com.payangar.immersivecompanions;
 
 import com.payangar.immersivecompanions.command.ModCommands;
-import com.payangar.immersivecompanions.config.ModConfig;
 import com.payangar.immersivecompanions.entity.CompanionEntity;
 import com.payangar.immersivecompanions.entity.CompanionTeleportHandler;
+import com.payangar.immersivecompanions.entity.PlayerHandle;
+import com.payangar.immersivecompanions.entity.ai.MonsterTargetCompanionGoal;
+import com.payangar.immersivecompanions.entity.formation.FormationPlanner;
+import com.payangar.immersivecompanions.entity.index.CompanionIndex;
+import com.payangar.immersivecompanions.entity.projectile.CompanionProjectiles;
+import com.payangar.immersivecompanions.entity.schedule.CompanionScheduler;
+import com.payangar.immersivecompanions.entity.team.EngagementPlanner;
+import com.payangar.immersivecompanions.entity.team.TeamBlackboard;
+import com.payangar.immersivecompanions.metrics.CompanionMetrics;
 import com.payangar.immersivecompanions.mixin.MobAccessor;
 import com.payangar.immersivecompanions.network.FabricNetworking;
 import com.payangar.immersivecompanions.platform.FabricServices;
 import com.payangar.immersivecompanions.platform.Services;
+import com.payangar.immersivecompanions.profiling.CompanionProfiler;
 import com.payangar.immersivecompanions.registry.FabricEntityRegistration;
 import com.payangar.immersivecompanions.registry.FabricMenuRegistration;
 import com.payangar.immersivecompanions.spawning.CompanionSpawnLogic;
+import com.payangar.immersivecompanions.stress.ScenarioRunner;
+import com.payangar.immersivecompanions.stress.ServerTickTimer;
+import com.payangar.immersivecompanions.stress.StressLoad;
+import com.payangar.immersivecompanions.village.VillageHostility;
+import com.payangar.immersivecompanions.village.VillageReputation;
+import com.payangar.immersivecompanions.village.VillageThreatSensor;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
-import net.minecraft.world.entity.ai.goal.target.NearestAttackableTargetGoal;
-import net.minecraft.world.entity.monster.Creeper;
-import net.minecraft.world.entity.monster.EnderMan;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.world.entity.monster.Monster;
+import net.minecraft.world.entity.projectile.Projectile;
 
 public class ImmersiveCompanionsFabric implements ModInitializer {
     @Override
@@ -44,28 +60,74 @@ public class ImmersiveCompanionsFabric implements ModInitializer {
         ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
             CompanionSpawnLogic.clearTrackedChunks();
             CompanionTeleportHandler.clear();
+            CompanionIndex.clearAll();
+            TeamBlackboard.clearAll();
+            EngagementPlanner.clearAll();
+            FormationPlanner.clearAll();
+            VillageReputation.clearAll();
+            VillageHostility.clearAll();
+            VillageThreatSensor.clearAll();
+            CompanionProjectiles.clearAll();
+            CompanionScheduler.clearAll();
+            CompanionProfiler.clearAll();
+            CompanionMetrics.clearAll();
+            ScenarioRunner.clearAll();
+            StressLoad.clearAll();
         });
 
         // Handle dimension changes - teleport companions when owner changes dimension
         ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) -> {
+            PlayerHandle.invalidateAll();
+            FormationPlanner.removeOwner(player.getUUID());
             CompanionTeleportHandler.onPlayerTeleport(player, destination, player.position());
         });
 
-        // Make monsters target companions
+        // Invalidate cached owner/interacting-player handles when the player list changes
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> PlayerHandle.invalidateAll());
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+            PlayerHandle.invalidateAll();
+            FormationPlanner.removeOwner(handler.getPlayer().getUUID());
+        });
+        ServerPlayerEvents.AFTER_RESPAWN.register((oldPlayer, newPlayer, alive) -> PlayerHandle.invalidateAll());
+
+        // Expire stuck and excess companion arrows
+        ServerTickEvents.END_WORLD_TICK.register(CompanionProjectiles::tick);
+
+        // Publish JMX gauge samples
+        ServerTickEvents.END_WORLD_TICK.register(CompanionMetrics::tick);
+
+        // Retry village spawns deferred by the population caps
+        ServerTickEvents.END_WORLD_TICK.register(CompanionSpawnLogic::tickDeferred);
+
+        // Time server ticks and drive stress scenarios, auto-running any named on the command line
+        ServerTickEvents.START_SERVER_TICK.register(server -> ServerTickTimer.onTickStart());
+        ServerTickEvents.END_SERVER_TICK.register(server -> ScenarioRunner.tick(ServerTickTimer.onTickEnd()));
+        ServerLifecycleEvents.SERVER_STARTED.register(ScenarioRunner::onServerStarted);
+
+        // Keep the companion index, team blackboard and projectile registry in sync with loaded entities
         ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
-            if (!ModConfig.get().isEnableMonstersTargetCompanions()) {
-                return;
+            if (entity instanceof CompanionEntity companion) {
+                CompanionIndex.get(world).add(companion);
+            } else if (entity instanceof Projectile projectile) {
+                CompanionProjectiles.get(world).restore(projectile);
             }
+        });
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
+            if (entity instanceof CompanionEntity companion) {
+                CompanionIndex.get(world).remove(companion);
+                TeamBlackboard.get(world).remove(companion);
+            } else if (entity instanceof Projectile projectile) {
+                CompanionProjectiles.get(world).remove(projectile);
+            }
+        });
 
-            if (entity instanceof Monster monster) {
-                // Exclude Creepers and Endermen
-                if (monster instanceof Creeper || monster instanceof EnderMan) {
-                    return;
-                }
-
+        // Make monsters target companions
+        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            if (MonsterTargetCompanionGoal.shouldInject(entity)) {
                 // Add goal to target companions with lower priority than player targeting
-                ((MobAccessor) monster).getTargetSelector().addGoal(3, new NearestAttackableTargetGoal<>(
-                        monster, CompanionEntity.class, true));
+                Monster monster = (Monster) entity;
+                ((MobAccessor) monster).getTargetSelector().addGoal(MonsterTargetCompanionGoal.PRIORITY,
+                        new MonsterTargetCompanionGoal(monster));
             }
         });
 
@@ -0,0 +1,15 @@
+package com.payangar.immersivecompanions.mixin;
+
+import net.minecraft.world.entity.projectile.AbstractArrow;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+/**
+ * Accessor mixin to access protected fields in AbstractArrow class.
+ */
+@Mixin(AbstractArrow.class)
+public interface AbstractArrowAccessor {
+
+    @Accessor("inGround")
+    boolean isInGround();
+}
@@ -0,0 +1,24 @@
+package com.payangar.immersivecompanions.mixin;
+
+import com.payangar.immersivecompanions.entity.projectile.CompanionProjectiles;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.projectile.AbstractArrow;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Mixin to let companion-fired arrows pass through allies.
+ * Same-team companions, iron golems and villagers are excluded from the arrow's hit candidates.
+ */
+@Mixin(AbstractArrow.class)
+public abstract class AbstractArrowHitFilterMixin {
+
+    @Inject(method = "canHitEntity", at = @At("HEAD"), cancellable = true)
+    private void onCanHitEntity(Entity entity, CallbackInfoReturnable<Boolean> cir) {
+        if (CompanionProjectiles.shouldPassThrough((AbstractArrow) (Object) this, entity)) {
+            cir.setReturnValue(false);
+        }
+    }
+}
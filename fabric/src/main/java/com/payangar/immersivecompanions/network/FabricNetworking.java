@@ -4,6 +4,7 @@ import com.payangar.immersivecompanions.client.gui.CompanionRecruitmentScreen;
 import com.payangar.immersivecompanions.entity.CompanionEntity;
 import com.payangar.immersivecompanions.entity.combat.CombatStance;
 import com.payangar.immersivecompanions.entity.mode.CompanionMode;
+import com.payangar.immersivecompanions.entity.team.CompanionTeams;
 import com.payangar.immersivecompanions.recruitment.CompanionPricing;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -77,9 +78,8 @@ public class FabricNetworking implements ModNetworking {
                                 return; // Not the interacting player
                             }
 
-                            // Recalculate price server-side for security
-                            int basePrice = companion.getBasePrice();
-                            int finalPrice = CompanionPricing.calculateFinalPrice(basePrice, companion, player);
+                            // Charge the price quoted server-side when the screen opened
+                            int finalPrice = companion.getRecruitmentQuote(player);
 
                             // Deduct emeralds
                             if (!CompanionPricing.removeEmeralds(player, finalPrice)) {
@@ -88,7 +88,7 @@ public class FabricNetworking implements ModNetworking {
 
                             // Transfer ownership
                             companion.setOwnerUUID(player.getUUID());
-                            companion.setCompanionTeam("player_" + player.getUUID().toString());
+                            companion.setCompanionTeam(CompanionTeams.playerTeam(player.getUUID()));
                             companion.setMode(CompanionMode.FOLLOW);
                             companion.setCombatStance(CombatStance.ASSIST);
                             companion.clearInteractingPlayer();
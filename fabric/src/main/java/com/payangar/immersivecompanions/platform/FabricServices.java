@@ -1,13 +1,18 @@
 package com.payangar.immersivecompanions.platform;
 
+import com.mojang.authlib.GameProfile;
+import com.payangar.immersivecompanions.mixin.AbstractArrowAccessor;
+import net.fabricmc.fabric.api.entity.FakePlayer;
 import net.fabricmc.fabric.api.screenhandler.v1.ExtendedScreenHandlerFactory;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.network.RegistryFriendlyByteBuf;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.MenuProvider;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.entity.projectile.AbstractArrow;
 import net.minecraft.world.inventory.AbstractContainerMenu;
 
 import java.nio.file.Path;
@@ -62,4 +67,14 @@ public class FabricServices implements Services {
             }
         });
     }
+
+    @Override
+    public ServerPlayer getFakePlayer(ServerLevel level, GameProfile profile) {
+        return FakePlayer.get(level, profile);
+    }
+
+    @Override
+    public boolean isInGround(AbstractArrow arrow) {
+        return ((AbstractArrowAccessor) arrow).isInGround();
+    }
 }
@@ -2,31 +2,51 @@ package com.payangar.immersivecompanions.events;
 
 import com.payangar.immersivecompanions.ImmersiveCompanions;
 import com.payangar.immersivecompanions.command.ModCommands;
-import com.payangar.immersivecompanions.config.ModConfig;
 import com.payangar.immersivecompanions.entity.CompanionEntity;
 import com.payangar.immersivecompanions.entity.CompanionTeleportHandler;
+import com.payangar.immersivecompanions.entity.PlayerHandle;
+import com.payangar.immersivecompanions.entity.ai.MonsterTargetCompanionGoal;
+import com.payangar.immersivecompanions.entity.formation.FormationPlanner;
+import com.payangar.immersivecompanions.entity.index.CompanionIndex;
+import com.payangar.immersivecompanions.entity.projectile.CompanionProjectiles;
+import com.payangar.immersivecompanions.entity.schedule.CompanionScheduler;
+import com.payangar.immersivecompanions.entity.team.EngagementPlanner;
+import com.payangar.immersivecompanions.entity.team.TeamBlackboard;
+import com.payangar.immersivecompanions.metrics.CompanionMetrics;
+import com.payangar.immersivecompanions.profiling.CompanionProfiler;
 import com.payangar.immersivecompanions.spawning.CompanionSpawnLogic;
+import com.payangar.immersivecompanions.stress.ScenarioRunner;
+import com.payangar.immersivecompanions.stress.ServerTickTimer;
+import com.payangar.immersivecompanions.stress.StressLoad;
+import com.payangar.immersivecompanions.village.VillageHostility;
+import com.payangar.immersivecompanions.village.VillageReputation;
+import com.payangar.immersivecompanions.village.VillageThreatSensor;
 import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.world.entity.ai.goal.target.NearestAttackableTargetGoal;
-import net.minecraft.world.entity.monster.Creeper;
-import net.minecraft.world.entity.monster.EnderMan;
 import net.minecraft.world.entity.monster.Monster;
+import net.minecraft.world.entity.projectile.Projectile;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.levelgen.structure.Structure;
 import net.minecraft.world.level.levelgen.structure.StructureStart;
+import net.minecraft.world.phys.EntityHitResult;
 import net.minecraft.world.phys.Vec3;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.event.RegisterCommandsEvent;
 import net.neoforged.neoforge.event.entity.EntityJoinLevelEvent;
+import net.neoforged.neoforge.event.entity.EntityLeaveLevelEvent;
 import net.neoforged.neoforge.event.entity.EntityTeleportEvent;
+import net.neoforged.neoforge.event.entity.ProjectileImpactEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
 import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.server.ServerStartedEvent;
 import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
 
 import java.util.Map;
 
@@ -107,6 +127,27 @@ public class NeoForgeSpawnEvents {
     public static void onServerStopped(ServerStoppedEvent event) {
         CompanionSpawnLogic.clearTrackedChunks();
         CompanionTeleportHandler.clear();
+        CompanionIndex.clearAll();
+        TeamBlackboard.clearAll();
+        EngagementPlanner.clearAll();
+        FormationPlanner.clearAll();
+        VillageReputation.clearAll();
+        VillageHostility.clearAll();
+        VillageThreatSensor.clearAll();
+        CompanionProjectiles.clearAll();
+        CompanionScheduler.clearAll();
+        CompanionProfiler.clearAll();
+        CompanionMetrics.clearAll();
+        ScenarioRunner.clearAll();
+        StressLoad.clearAll();
+    }
+
+    /**
+     * Auto-runs the stress scenarios named on the command line, if any.
+     */
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        ScenarioRunner.onServerStarted(event.getServer());
     }
 
     @SubscribeEvent
@@ -129,28 +170,120 @@ public class NeoForgeSpawnEvents {
     }
 
     /**
-     * Injects companion targeting goal into monsters when they join the world.
-     * Excludes Creepers and Endermen.
+     * Invalidates cached owner/interacting-player handles when the player list changes, and drops
+     * formation parties of owners who log out or change dimension.
      */
     @SubscribeEvent
-    public static void onEntityJoinLevel(EntityJoinLevelEvent event) {
-        if (!ModConfig.get().isEnableMonstersTargetCompanions()) {
+    public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        PlayerHandle.invalidateAll();
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        PlayerHandle.invalidateAll();
+        FormationPlanner.removeOwner(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event) {
+        PlayerHandle.invalidateAll();
+    }
+
+    @SubscribeEvent
+    public static void onPlayerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        PlayerHandle.invalidateAll();
+        FormationPlanner.removeOwner(event.getEntity().getUUID());
+    }
+
+    /**
+     * Adds companions to the level's companion index, and resumes tracking companion projectiles
+     * loaded back from disk, when they join the world.
+     */
+    @SubscribeEvent
+    public static void onCompanionJoinLevel(EntityJoinLevelEvent event) {
+        if (!(event.getLevel() instanceof ServerLevel serverLevel)) {
             return;
         }
+        if (event.getEntity() instanceof CompanionEntity companion) {
+            CompanionIndex.get(serverLevel).add(companion);
+        } else if (event.getEntity() instanceof Projectile projectile) {
+            CompanionProjectiles.get(serverLevel).restore(projectile);
+        }
+    }
 
-        if (event.getLevel().isClientSide()) {
+    /**
+     * Removes companions from the level's companion index and team blackboard, and companion projectiles from
+     * the projectile registry, when they leave the world.
+     */
+    @SubscribeEvent
+    public static void onCompanionLeaveLevel(EntityLeaveLevelEvent event) {
+        if (!(event.getLevel() instanceof ServerLevel serverLevel)) {
             return;
         }
+        if (event.getEntity() instanceof CompanionEntity companion) {
+            CompanionIndex.get(serverLevel).remove(companion);
+            TeamBlackboard.get(serverLevel).remove(companion);
+        } else if (event.getEntity() instanceof Projectile projectile) {
+            CompanionProjectiles.get(serverLevel).remove(projectile);
+        }
+    }
 
-        if (event.getEntity() instanceof Monster monster) {
-            // Exclude Creepers and Endermen
-            if (monster instanceof Creeper || monster instanceof EnderMan) {
-                return;
-            }
+    /**
+     * Expires stuck and excess companion arrows, publishes JMX gauge samples and retries
+     * deferred village spawns at the end of each level tick.
+     */
+    @SubscribeEvent
+    public static void onLevelTick(LevelTickEvent.Post event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            CompanionProjectiles.tick(serverLevel);
+            CompanionMetrics.tick(serverLevel);
+            CompanionSpawnLogic.tickDeferred(serverLevel);
+        }
+    }
+
+    /**
+     * Starts timing the server tick for stress scenarios.
+     */
+    @SubscribeEvent
+    public static void onServerTickStart(ServerTickEvent.Pre event) {
+        ServerTickTimer.onTickStart();
+    }
+
+    /**
+     * Finishes timing the server tick and advances any running stress scenario.
+     */
+    @SubscribeEvent
+    public static void onServerTickEnd(ServerTickEvent.Post event) {
+        ScenarioRunner.tick(ServerTickTimer.onTickEnd());
+    }
+
+    /**
+     * Lets companion-fired projectiles pass through allies by cancelling the impact.
+     * Same-team companions, iron golems and villagers are not hit.
+     */
+    @SubscribeEvent
+    public static void onProjectileImpact(ProjectileImpactEvent event) {
+        if (event.getRayTraceResult() instanceof EntityHitResult hit
+                && CompanionProjectiles.shouldPassThrough(event.getProjectile(), hit.getEntity())) {
+            event.setCanceled(true);
+        }
+    }
+
+    /**
+     * Injects companion targeting goal into monsters when they join the world.
+     * Excludes Creepers and Endermen.
+     */
+    @SubscribeEvent
+    public static void onEntityJoinLevel(EntityJoinLevelEvent event) {
+        if (event.getLevel().isClientSide()) {
+            return;
+        }
 
+        if (MonsterTargetCompanionGoal.shouldInject(event.getEntity())) {
             // Add goal to target companions with lower priority than player targeting
-            monster.targetSelector.addGoal(3, new NearestAttackableTargetGoal<>(
-                    monster, CompanionEntity.class, true));
+            Monster monster = (Monster) event.getEntity();
+            monster.targetSelector.addGoal(MonsterTargetCompanionGoal.PRIORITY,
+                    new MonsterTargetCompanionGoal(monster));
         }
     }
 }
@@ -1,11 +1,15 @@
 package com.payangar.immersivecompanions.platform;
 
+import com.mojang.authlib.GameProfile;
 import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.MenuProvider;
+import net.minecraft.world.entity.projectile.AbstractArrow;
 import net.neoforged.fml.ModList;
 import net.neoforged.fml.loading.FMLLoader;
 import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.neoforge.common.util.FakePlayerFactory;
 
 import java.nio.file.Path;
 import java.util.function.Consumer;
@@ -36,4 +40,15 @@ public class NeoForgeServices implements Services {
     public void openMenu(ServerPlayer player, MenuProvider menuProvider, Consumer<RegistryFriendlyByteBuf> dataWriter) {
         player.openMenu(menuProvider, dataWriter);
     }
+
+    @Override
+    public ServerPlayer getFakePlayer(ServerLevel level, GameProfile profile) {
+        return FakePlayerFactory.get(level, profile);
+    }
+
+    @Override
+    public boolean isInGround(AbstractArrow arrow) {
+        // Made public by META-INF/accesstransformer.cfg
+        return arrow.inGround;
+    }
 }
@@ -16,3 +16,4 @@ rootProject.name = "immersive-companions"
 include("common")
 include("fabric")
 include("neoforge")
+include("benchmarks")